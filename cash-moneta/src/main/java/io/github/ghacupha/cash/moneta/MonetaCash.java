@@ -0,0 +1,58 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.moneta;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.HardCash;
+import org.javamoney.moneta.Money;
+
+import javax.money.MonetaryAmount;
+import java.util.Currency;
+
+/**
+ * Converts between {@link Cash} and the JSR-354 {@link MonetaryAmount}. This lives in its own module so
+ * that applications which do not use Moneta do not have to load it
+ *
+ * @author edwin.njeru
+ */
+public final class MonetaCash {
+
+    private MonetaCash() {
+    }
+
+    /**
+     * Creates {@link Cash} from a JSR-354 amount exactly as {@link HardCash#of(double, Currency)} would from
+     * the amount's double value, so half a cent is rounded away from zero
+     *
+     * @param amount {@link MonetaryAmount} to be converted
+     * @return {@link Cash} equivalent of the amount
+     */
+    public static Cash fromMoneta(MonetaryAmount amount) {
+
+        return HardCash.of(amount.getNumber().doubleValue(), Currency.getInstance(amount.getCurrency().getCurrencyCode()));
+    }
+
+    /**
+     * @param cash {@link Cash} to be converted
+     * @return Moneta {@link Money} equivalent of the cash
+     */
+    public static Money toMoneta(Cash cash) {
+
+        return Money.of(cash.getNumber(), cash.getCurrency().getCurrencyCode());
+    }
+}
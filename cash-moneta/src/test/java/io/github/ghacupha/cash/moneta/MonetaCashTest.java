@@ -0,0 +1,48 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.moneta;
+
+import org.javamoney.moneta.FastMoney;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static io.github.ghacupha.cash.HardCash.dollar;
+import static io.github.ghacupha.cash.HardCash.shilling;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Conversions between cash and Moneta")
+class MonetaCashTest {
+
+    @Test
+    @DisplayName("Moneta amounts are converted to cash")
+    void fromMoneta() {
+
+        assertEquals(shilling(300.50), MonetaCash.fromMoneta(Money.of(300.50, "KES")));
+        assertEquals(dollar(0.13), MonetaCash.fromMoneta(Money.of(0.125, "USD")));
+        assertEquals(dollar(0.13), MonetaCash.fromMoneta(FastMoney.of(0.125, "USD")));
+    }
+
+    @Test
+    @DisplayName("Cash is converted to Moneta amounts")
+    void toMoneta() {
+
+        assertEquals(Money.of(300.50, "KES").getNumber().doubleValue(), MonetaCash.toMoneta(shilling(300.50)).getNumber().doubleValue());
+        assertEquals("KES", MonetaCash.toMoneta(shilling(300.50)).getCurrency().getCurrencyCode());
+    }
+}
@@ -0,0 +1,282 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash;
+
+import org.joda.money.CurrencyMismatchException;
+import org.joda.money.CurrencyUnit;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Records a chain of {@link Cash} operations without performing them, for example
+ * <pre>
+ *     Cash monthly = CashExpression.of(price).plus(delivery).minus(discount).multiply(1.16).divide(12).evaluate();
+ * </pre>
+ * Unlike calling the same operations on {@link Cash}, no intermediate {@link Cash} is created and nothing
+ * is rounded until {@link #evaluate(RoundingMode)}, which rounds once to the decimal places of the currency.
+ * <p>
+ * Since every operation is a sum or a scaling, the chain is kept as the exact fraction (x * k + c) / d of
+ * the starting amount x. An expression started with {@link #input()} has no starting amount and can be
+ * evaluated for many inputs in bulk, for instance over a column of amounts in minor units.
+ * <p>
+ * Expressions are immutable; each operation returns a new expression.
+ *
+ * @author edwin.njeru
+ */
+public final class CashExpression {
+
+    private final Cash start;
+    private final Currency currency;
+    private final BigDecimal k;
+    private final BigDecimal c;
+    private final BigDecimal d;
+
+    private CashExpression(Cash start, Currency currency, BigDecimal k, BigDecimal c, BigDecimal d) {
+        this.start = start;
+        this.currency = currency;
+        this.k = k;
+        this.c = c;
+        this.d = d;
+    }
+
+    /**
+     * @param start {@link Cash} amount on which the operations are performed
+     * @return New expression that evaluates to the starting amount
+     */
+    public static CashExpression of(Cash start) {
+
+        return new CashExpression(start, start.getCurrency(), BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ONE);
+    }
+
+    /**
+     * @return New expression whose starting amount is given when it is evaluated
+     */
+    public static CashExpression input() {
+
+        return new CashExpression(null, null, BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ONE);
+    }
+
+    /**
+     * @param arg {@link Cash} amount to be added
+     * @return New expression adding the argument to this
+     */
+    public CashExpression plus(Cash arg) {
+
+        return new CashExpression(start, checkCurrency(arg.getCurrency()), k, c.add(amountOf(arg).multiply(d)), d);
+    }
+
+    /**
+     * @param arg {@link Cash} amount to be subtracted
+     * @return New expression subtracting the argument from this
+     */
+    public CashExpression minus(Cash arg) {
+
+        return new CashExpression(start, checkCurrency(arg.getCurrency()), k, c.subtract(amountOf(arg).multiply(d)), d);
+    }
+
+    /**
+     * @param arg double amount by which this is multiplied
+     * @return New expression multiplying this by the argument
+     */
+    public CashExpression multiply(double arg) {
+
+        return multiply(BigDecimal.valueOf(arg));
+    }
+
+    /**
+     * @param arg {@link BigDecimal} amount by which this is multiplied
+     * @return New expression multiplying this by the argument
+     */
+    public CashExpression multiply(BigDecimal arg) {
+
+        return new CashExpression(start, currency, k.multiply(arg), c.multiply(arg), d);
+    }
+
+    /**
+     * @param arg double amount by which this is divided
+     * @return New expression dividing this by the argument
+     */
+    public CashExpression divide(double arg) {
+
+        return divide(BigDecimal.valueOf(arg));
+    }
+
+    /**
+     * @param arg {@link BigDecimal} amount by which this is divided
+     * @return New expression dividing this by the argument
+     * @throws ArithmeticException if the argument is zero
+     */
+    public CashExpression divide(BigDecimal arg) {
+
+        if (arg.signum() == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+
+        return new CashExpression(start, currency, k, c, d.multiply(arg));
+    }
+
+    /**
+     * Evaluates the expression using {@link RoundingMode#HALF_EVEN}
+     *
+     * @return {@link Cash} result of the operations
+     */
+    public Cash evaluate() {
+
+        return evaluate(RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * @param roundingMode {@link RoundingMode} applied once to the result
+     * @return {@link Cash} result of the operations
+     * @throws IllegalStateException if the expression was started with {@link #input()}
+     */
+    public Cash evaluate(RoundingMode roundingMode) {
+
+        if (start == null) {
+            throw new IllegalStateException("The expression has no starting amount, it must be evaluated with an input");
+        }
+
+        return evaluate(start, roundingMode);
+    }
+
+    /**
+     * Evaluates the expression with the argument as its starting amount
+     *
+     * @param input        {@link Cash} starting amount
+     * @param roundingMode {@link RoundingMode} applied once to the result
+     * @return {@link Cash} result of the operations
+     */
+    public Cash evaluate(Cash input, RoundingMode roundingMode) {
+
+        Currency inputCurrency = checkCurrency(input.getCurrency());
+
+        return MinorUnits.toCash(compile(inputCurrency, roundingMode).apply(MinorUnits.of(input)), inputCurrency);
+    }
+
+    /**
+     * Evaluates the expression once for each input, in order
+     *
+     * @param inputs       {@link Cash} starting amounts
+     * @param roundingMode {@link RoundingMode} applied once to each result
+     * @return {@link Cash} results, in the order of the inputs
+     */
+    public List<Cash> evaluateAll(List<? extends Cash> inputs, RoundingMode roundingMode) {
+
+        List<Cash> results = new ArrayList<>(inputs.size());
+        Compiled compiled = null;
+        for (Cash input : inputs) {
+            Currency inputCurrency = checkCurrency(input.getCurrency());
+            if (compiled == null || !compiled.currency.equals(inputCurrency)) {
+                compiled = compile(inputCurrency, roundingMode);
+            }
+            results.add(MinorUnits.toCash(compiled.apply(MinorUnits.of(input)), inputCurrency));
+        }
+        return results;
+    }
+
+    /**
+     * Evaluates the expression over a column of amounts in minor units of a single currency
+     *
+     * @param minorUnits   Starting amounts in minor units of the currency
+     * @param currency     {@link Currency} of the amounts
+     * @param roundingMode {@link RoundingMode} applied once to each result
+     * @return Results in minor units of the currency, in the order of the inputs
+     */
+    public long[] evaluateAll(long[] minorUnits, Currency currency, RoundingMode roundingMode) {
+
+        Compiled compiled = compile(checkCurrency(currency), roundingMode);
+
+        long[] results = new long[minorUnits.length];
+        for (int i = 0; i < minorUnits.length; i++) {
+            results[i] = compiled.apply(minorUnits[i]);
+        }
+        return results;
+    }
+
+    private Compiled compile(Currency target, RoundingMode roundingMode) {
+
+        // everything is moved to minor units, so the result is (x * k + c * 10^dp) / d for x in minor units
+        return new Compiled(target, k, c.movePointRight(MinorUnits.decimalPlaces(target)), d, roundingMode);
+    }
+
+    private Currency checkCurrency(Currency other) {
+
+        if (currency != null && !currency.equals(other)) {
+            throw new CurrencyMismatchException(CurrencyUnit.of(currency), CurrencyUnit.of(other));
+        }
+        return other;
+    }
+
+    private static BigDecimal amountOf(Cash cash) {
+
+        return BigDecimal.valueOf(MinorUnits.of(cash), MinorUnits.decimalPlaces(cash.getCurrency()));
+    }
+
+    /**
+     * The expression reduced for a particular currency and rounding mode. When it involves neither
+     * fractions nor division it is applied with long arithmetic alone
+     */
+    private static final class Compiled {
+
+        private final Currency currency;
+        private final BigDecimal k;
+        private final BigDecimal c;
+        private final BigDecimal d;
+        private final RoundingMode roundingMode;
+
+        private final boolean integral;
+        private final long longK;
+        private final long longC;
+
+        Compiled(Currency currency, BigDecimal k, BigDecimal c, BigDecimal d, RoundingMode roundingMode) {
+            this.currency = currency;
+            this.k = k;
+            this.c = c;
+            this.d = d;
+            this.roundingMode = roundingMode;
+
+            this.integral = d.compareTo(BigDecimal.ONE) == 0 && fitsInLong(k) && fitsInLong(c);
+            this.longK = integral ? k.longValueExact() : 0;
+            this.longC = integral ? c.longValueExact() : 0;
+        }
+
+        long apply(long minorUnits) {
+
+            if (integral) {
+                return Math.addExact(Math.multiplyExact(minorUnits, longK), longC);
+            }
+
+            return BigDecimal.valueOf(minorUnits).multiply(k).add(c)
+                .divide(d, 0, roundingMode)
+                .longValueExact();
+        }
+
+        private static boolean fitsInLong(BigDecimal value) {
+            try {
+                value.longValueExact();
+                return true;
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash;
+
+import org.joda.money.IllegalCurrencyException;
+
+/**
+ * Built-in table of the decimal places of the ISO 4217 currencies, so that the scale of an amount can be
+ * found without loading the currency data of joda-money. The table agrees with the data of the joda-money
+ * version that backs {@link HardCash}, with pseudo-currencies such as XAU having no decimal places.
+ * <p>
+ * Each entry is the three letter code followed by a single digit, sorted by code and searched in place,
+ * so there is nothing to parse or allocate when the class loads.
+ *
+ * @author edwin.njeru
+ */
+final class CurrencyTable {
+
+    private static final int ENTRY_LENGTH = 4;
+
+    private static final String TABLE = ""
+        + "AED2AFN2ALL2AMD2ANG2AOA2ARS2AUD2AWG2AZN2BAM2BBD2BDT2BGN2BHD3BIF0BMD2BND2BOB2BRL2BSD2BTN2BWP2BYN2"
+        + "BZD2CAD2CDF2CHF2CLP0CNY2COP2CRC2CUP2CVE2CZK2DJF0DKK2DOP2DZD2EGP2ERN2ETB2EUR2FJD2FKP2GBP2GEL2GHS2"
+        + "GIP2GMD2GNF0GTQ2GYD2HKD2HNL2HRK2HTG2HUF2IDR2ILS2INR2IQD3IRR2ISK0JMD2JOD3JPY0KES2KGS2KHR2KMF0KPW2"
+        + "KRW0KWD3KYD2KZT2LAK2LBP2LKR2LRD2LSL2LYD3MAD2MDL2MGA2MKD2MMK2MNT2MOP2MRO2MUR2MVR2MWK2MXN2MYR2MZN2"
+        + "NAD2NGN2NIO2NOK2NPR2NZD2OMR3PAB2PEN2PGK2PHP2PKR2PLN2PYG0QAR2RON2RSD2RUB2RUR2RWF0SAR2SBD2SCR2SDG2"
+        + "SEK2SGD2SHP2SLL2SOS2SRD2SSP2STD2SVC2SYP2SZL2THB2TJS2TMT2TND3TOP2TRY2TTD2TWD2TZS2UAH2UGX0USD2UYU2"
+        + "UZS2VEF2VND0VUV0WST2XAF0XAG0XAU0XBA0XBB0XBC0XBD0XCD2XDR0XFU0XOF0XPD0XPF0XPT0XSU0XTS0XUA0XXX0YER2"
+        + "ZAR2ZMW2ZWL2";
+
+    private CurrencyTable() {
+    }
+
+    /**
+     * @param currencyCode ISO 4217 code of the currency
+     * @return Number of decimal places of the currency
+     * @throws IllegalCurrencyException if the currency is not in the table
+     */
+    static int decimalPlaces(String currencyCode) {
+
+        int low = 0;
+        int high = TABLE.length() / ENTRY_LENGTH - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compare(mid * ENTRY_LENGTH, currencyCode);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return TABLE.charAt(mid * ENTRY_LENGTH + 3) - '0';
+            }
+        }
+
+        throw new IllegalCurrencyException("Unknown currency '" + currencyCode + '\'');
+    }
+
+    private static int compare(int offset, String currencyCode) {
+
+        for (int i = 0; i < 3; i++) {
+            int difference = TABLE.charAt(offset + i) - currencyCode.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+}
@@ -117,11 +117,6 @@ public class HardCash implements Cash {
         return new HardCash(value, Currency.getInstance("KES"));
     }
 
-    public static Cash fromMoneta(org.javamoney.moneta.Money money) {
-
-        return HardCash.of(money.getNumber().doubleValue(), Currency.getInstance(money.getCurrency().getCurrencyCode()));
-    }
-
     @Override
     public Currency getCurrency() {
         return base.getCurrencyUnit().toCurrency();
@@ -179,6 +174,14 @@ public class HardCash implements Cash {
         return multiply(1 / arg, roundingMode);
     }
 
+    /**
+     * @return The amount of this expressed in the minor units of its currency, e.g. cents
+     */
+    long getAmountMinorLong() {
+
+        return this.base.getAmountMinorLong();
+    }
+
     @Override
     public Number getNumber() {
 
@@ -0,0 +1,86 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash;
+
+import org.joda.money.CurrencyUnit;
+import org.joda.money.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Converts {@link Cash} to and from a primitive amount expressed in the minor units of the currency,
+ * for instance cents for USD. This allows bulk operations to work on long values rather than
+ * creating new {@link Cash} objects at every step
+ *
+ * @author edwin.njeru
+ */
+public final class MinorUnits {
+
+    private MinorUnits() {
+    }
+
+    /**
+     * @param cash {@link Cash} amount to be converted
+     * @return The amount of the argument in the minor units of its currency
+     * @throws ArithmeticException if the amount has more decimal places than the currency or does not fit in a long
+     */
+    public static long of(Cash cash) {
+
+        if (cash instanceof HardCash) {
+            return ((HardCash) cash).getAmountMinorLong();
+        }
+
+        return toBigDecimal(cash.getNumber())
+            .movePointRight(decimalPlaces(cash.getCurrency()))
+            .setScale(0, RoundingMode.UNNECESSARY)
+            .longValueExact();
+    }
+
+    /**
+     * @param minorUnits Amount in the minor units of the currency
+     * @param currency   {@link Currency} of the amount
+     * @return {@link Cash} equivalent of the minor units in the currency given
+     */
+    public static Cash toCash(long minorUnits, Currency currency) {
+
+        return new HardCash(Money.ofMinor(CurrencyUnit.of(currency), minorUnits));
+    }
+
+    /**
+     * Looks the currency up in a built-in table, so that unlike {@link CurrencyUnit} this does not
+     * load the currency data of joda-money
+     *
+     * @param currency {@link Currency} whose decimal places we need
+     * @return Number of decimal places used by the currency
+     */
+    public static int decimalPlaces(Currency currency) {
+
+        return CurrencyTable.decimalPlaces(currency.getCurrencyCode());
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+
+        return new BigDecimal(number.toString());
+    }
+}
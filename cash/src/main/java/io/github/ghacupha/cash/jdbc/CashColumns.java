@@ -0,0 +1,174 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.jdbc;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.MinorUnits;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Currency;
+import java.util.Iterator;
+
+/**
+ * Maps {@link Cash} to a pair of columns, a CHAR(3) column holding the ISO 4217 currency code and a
+ * BIGINT column holding the amount in the minor units of the currency. Unlike a single "KES 300.50"
+ * VARCHAR column, the amount column can be indexed, compared and summed by the database, and no
+ * string has to be parsed when reading a row.
+ * <p>
+ * A null {@link Cash} is stored as two null columns and read back as null. A row in which only one of
+ * the two columns is null is rejected rather than read as zero or as null.
+ *
+ * @author edwin.njeru
+ */
+public class CashColumns {
+
+    /**
+     * Number of rows bound before a batch is sent to the database when none is specified
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final int currencyIndex;
+    private final int amountIndex;
+
+    /**
+     * @param currencyIndex One-based index of the currency column or parameter
+     * @param amountIndex   One-based index of the minor units column or parameter
+     */
+    public CashColumns(int currencyIndex, int amountIndex) {
+
+        if (currencyIndex < 1 || amountIndex < 1 || currencyIndex == amountIndex) {
+            throw new IllegalArgumentException("Invalid column indices : " + currencyIndex + ", " + amountIndex);
+        }
+        this.currencyIndex = currencyIndex;
+        this.amountIndex = amountIndex;
+    }
+
+    /**
+     * Reads {@link Cash} from the current row of the result set using column labels
+     *
+     * @param resultSet      {@link ResultSet} positioned on a row
+     * @param currencyColumn Label of the currency column
+     * @param amountColumn   Label of the minor units column
+     * @return {@link Cash} in the row or null if both columns are null
+     * @throws SQLException if the columns cannot be read or only one of them is null
+     */
+    public static Cash getCash(ResultSet resultSet, String currencyColumn, String amountColumn) throws SQLException {
+
+        String currencyCode = resultSet.getString(currencyColumn);
+        long minorUnits = resultSet.getLong(amountColumn);
+
+        return toCash(currencyCode, minorUnits, resultSet.wasNull());
+    }
+
+    /**
+     * Reads {@link Cash} from the current row of the result set
+     *
+     * @param resultSet {@link ResultSet} positioned on a row
+     * @return {@link Cash} in the row or null if both columns are null
+     * @throws SQLException if the columns cannot be read or only one of them is null
+     */
+    public Cash getCash(ResultSet resultSet) throws SQLException {
+
+        String currencyCode = resultSet.getString(currencyIndex);
+        long minorUnits = resultSet.getLong(amountIndex);
+
+        return toCash(currencyCode, minorUnits, resultSet.wasNull());
+    }
+
+    /**
+     * Sets the currency and minor units parameters of the statement
+     *
+     * @param statement {@link PreparedStatement} whose parameters are to be set
+     * @param cash      {@link Cash} to be bound, may be null
+     * @throws SQLException if the parameters cannot be set
+     */
+    public void setCash(PreparedStatement statement, Cash cash) throws SQLException {
+
+        if (cash == null) {
+            statement.setNull(currencyIndex, Types.CHAR);
+            statement.setNull(amountIndex, Types.BIGINT);
+            return;
+        }
+
+        statement.setString(currencyIndex, cash.getCurrency().getCurrencyCode());
+        statement.setLong(amountIndex, MinorUnits.of(cash));
+    }
+
+    /**
+     * Inserts or updates each {@link Cash} item using the statement, in batches of {@link #DEFAULT_BATCH_SIZE}
+     *
+     * @param statement {@link PreparedStatement} to be executed
+     * @param items     {@link Cash} items to be bound one per row
+     * @return Number of rows bound
+     * @throws SQLException if a batch fails
+     */
+    public long executeBatch(PreparedStatement statement, Iterable<? extends Cash> items) throws SQLException {
+
+        return executeBatch(statement, items.iterator(), DEFAULT_BATCH_SIZE, this::setCash);
+    }
+
+    /**
+     * Binds each row using the binder and executes the statement in batches. The rows are consumed
+     * as they are bound so that only one batch is held by the driver at a time
+     *
+     * @param statement {@link PreparedStatement} to be executed
+     * @param rows      Rows to be bound
+     * @param batchSize Number of rows in each batch
+     * @param binder    {@link RowBinder} that sets the parameters of each row
+     * @param <T>       Type of the rows
+     * @return Number of rows bound
+     * @throws SQLException if a batch fails
+     */
+    public static <T> long executeBatch(PreparedStatement statement, Iterator<T> rows, int batchSize, RowBinder<? super T> binder) throws SQLException {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive : " + batchSize);
+        }
+
+        long count = 0;
+        int pending = 0;
+        while (rows.hasNext()) {
+            binder.bind(statement, rows.next());
+            statement.addBatch();
+            count++;
+            if (++pending == batchSize) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            statement.executeBatch();
+        }
+        return count;
+    }
+
+    private static Cash toCash(String currencyCode, long minorUnits, boolean amountIsNull) throws SQLException {
+
+        if (currencyCode == null && amountIsNull) {
+            return null;
+        }
+        if (currencyCode == null || amountIsNull) {
+            throw new SQLException("Only one of the currency and amount columns is null : " + currencyCode + ", " + (amountIsNull ? null : minorUnits));
+        }
+
+        return MinorUnits.toCash(minorUnits, Currency.getInstance(currencyCode.trim()));
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds the parameters of a single row of type T to a {@link PreparedStatement}
+ *
+ * @param <T> Type of the row being bound
+ * @author edwin.njeru
+ */
+@FunctionalInterface
+public interface RowBinder<T> {
+
+    /**
+     * @param statement {@link PreparedStatement} whose parameters are to be set
+     * @param row       The row whose values are to be bound
+     * @throws SQLException if a parameter cannot be set
+     */
+    void bind(PreparedStatement statement, T row) throws SQLException;
+}
@@ -0,0 +1,104 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.reconciliation;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.MinorUnits;
+
+import java.util.Iterator;
+
+/**
+ * Matches the items of a statement against those of a ledger by currency and amount. The ledger is
+ * read once into a primitive index sorted by amount in minor units while the statement is streamed
+ * through it one item at a time, so each statement item is matched in logarithmic time instead of
+ * being compared against every ledger item. Exact matches are preferred, failing which the nearest
+ * unmatched ledger amount within the tolerance is taken.
+ * <p>
+ * Only the statement is streamed. The ledger index is held in memory for the whole reconciliation, at
+ * roughly 20 bytes per ledger line, so the larger of the two inputs should be passed as the statement.
+ * <p>
+ * Results are pushed to a {@link ReconciliationListener} as they are found; matches and unmatched
+ * statement items in statement order, then unmatched ledger items
+ * grouped by currency in order of currency code, and in order of amount within each currency.
+ *
+ * @author edwin.njeru
+ */
+public class CashReconciler {
+
+    private final long tolerance;
+
+    /**
+     * Creates a reconciler that only accepts exact matches
+     */
+    public CashReconciler() {
+        this(0);
+    }
+
+    /**
+     * @param tolerance Maximum difference allowed between matched amounts, in the minor units of their currency
+     */
+    public CashReconciler(long tolerance) {
+
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("The tolerance cannot be negative : " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @param statement Statement items, these are streamed
+     * @param ledger    Ledger items, these are indexed
+     * @param listener  {@link ReconciliationListener} to which results are reported
+     * @return {@link ReconciliationSummary} of the reconciliation
+     */
+    public ReconciliationSummary reconcile(Iterable<? extends Cash> statement, Iterable<? extends Cash> ledger, ReconciliationListener listener) {
+
+        return reconcile(statement.iterator(), ledger.iterator(), listener);
+    }
+
+    /**
+     * @param statement Statement items, these are streamed
+     * @param ledger    Ledger items, these are indexed
+     * @param listener  {@link ReconciliationListener} to which results are reported
+     * @return {@link ReconciliationSummary} of the reconciliation
+     */
+    public ReconciliationSummary reconcile(Iterator<? extends Cash> statement, Iterator<? extends Cash> ledger, ReconciliationListener listener) {
+
+        LedgerIndex index = new LedgerIndex(ledger);
+
+        long exactMatches = 0;
+        long toleranceMatches = 0;
+        long unmatchedStatement = 0;
+
+        for (long line = 0; statement.hasNext(); line++) {
+            Cash cash = statement.next();
+            MatchType matchType = index.claim(cash.getCurrency(), MinorUnits.of(cash), tolerance, listener, line, cash);
+
+            if (matchType == MatchType.EXACT) {
+                exactMatches++;
+            } else if (matchType == MatchType.WITHIN_TOLERANCE) {
+                toleranceMatches++;
+            } else {
+                listener.unmatchedStatement(line, cash);
+                unmatchedStatement++;
+            }
+        }
+
+        return new ReconciliationSummary(exactMatches, toleranceMatches, unmatchedStatement, index.reportUnclaimed(listener));
+    }
+}
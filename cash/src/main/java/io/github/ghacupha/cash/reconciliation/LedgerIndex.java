@@ -0,0 +1,251 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.reconciliation;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.MinorUnits;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of ledger amounts held as primitive arrays per currency and sorted by amount in minor units.
+ * The whole ledger is held, so memory grows with the ledger : roughly 20 bytes per line, and up to twice
+ * that while the arrays grow during the build. Blocks are kept in order of currency code so that they
+ * are always reported in the same order.
+ *
+ * @author edwin.njeru
+ */
+final class LedgerIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Block> blocks = new TreeMap<>();
+
+    LedgerIndex(Iterator<? extends Cash> ledger) {
+
+        int line = 0;
+        while (ledger.hasNext()) {
+            if (line == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The ledger has more lines than can be indexed");
+            }
+            Cash cash = ledger.next();
+            Currency currency = cash.getCurrency();
+            blocks.computeIfAbsent(currency.getCurrencyCode(), code -> new Block(currency)).add(MinorUnits.of(cash), line++);
+        }
+
+        blocks.values().forEach(Block::seal);
+    }
+
+    /**
+     * Claims the unclaimed ledger entry nearest to the amount given, preferring an exact match
+     *
+     * @param currency   {@link Currency} of the statement item
+     * @param amount     Amount of the statement item in minor units
+     * @param tolerance  Maximum allowed difference in minor units
+     * @param listener   {@link ReconciliationListener} notified of the match
+     * @param line       Position of the statement item
+     * @param cash       The statement item itself
+     * @return The {@link MatchType} of the claimed entry or null if none could be claimed
+     */
+    MatchType claim(Currency currency, long amount, long tolerance, ReconciliationListener listener, long line, Cash cash) {
+
+        Block block = blocks.get(currency.getCurrencyCode());
+
+        return block == null ? null : block.claim(amount, tolerance, listener, line, cash);
+    }
+
+    /**
+     * Reports every unclaimed entry to the listener
+     *
+     * @param listener {@link ReconciliationListener} to be notified
+     * @return Number of entries reported
+     */
+    long reportUnclaimed(ReconciliationListener listener) {
+
+        long unclaimed = 0;
+        for (Block block : blocks.values()) {
+            unclaimed += block.reportUnclaimed(listener);
+        }
+        return unclaimed;
+    }
+
+    /**
+     * Entries of a single currency. Claimed entries are skipped using two disjoint-set forests, one that
+     * points to the next unclaimed entry to the right and one to the next unclaimed entry to the left
+     */
+    private static final class Block {
+
+        private final Currency currency;
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private int[] lines = new int[INITIAL_CAPACITY];
+        private int size;
+
+        // next[i] leads to the first unclaimed entry at or after i; size is the sentinel
+        private int[] next;
+        // previous[i + 1] leads to the last unclaimed entry at or before i, shifted by one; 0 is the sentinel
+        private int[] previous;
+
+        Block(Currency currency) {
+            this.currency = currency;
+        }
+
+        void add(long amount, int line) {
+            if (size == amounts.length) {
+                amounts = Arrays.copyOf(amounts, size << 1);
+                lines = Arrays.copyOf(lines, size << 1);
+            }
+            amounts[size] = amount;
+            lines[size] = line;
+            size++;
+        }
+
+        void seal() {
+            amounts = Arrays.copyOf(amounts, size);
+            lines = Arrays.copyOf(lines, size);
+            heapSort();
+
+            next = new int[size + 1];
+            previous = new int[size + 1];
+            for (int i = 0; i <= size; i++) {
+                next[i] = i;
+                previous[i] = i;
+            }
+        }
+
+        MatchType claim(long amount, long tolerance, ReconciliationListener listener, long line, Cash cash) {
+
+            int lowerBound = lowerBound(amount);
+            int right = find(next, lowerBound);
+
+            if (right < size && amounts[right] == amount) {
+                take(right, listener, line, cash, MatchType.EXACT);
+                return MatchType.EXACT;
+            }
+
+            if (tolerance == 0) {
+                return null;
+            }
+
+            int left = find(previous, lowerBound) - 1;
+
+            long rightGap = right < size ? amounts[right] - amount : Long.MAX_VALUE;
+            long leftGap = left >= 0 ? amount - amounts[left] : Long.MAX_VALUE;
+
+            if (Math.min(leftGap, rightGap) > tolerance) {
+                return null;
+            }
+
+            take(leftGap <= rightGap ? left : right, listener, line, cash, MatchType.WITHIN_TOLERANCE);
+            return MatchType.WITHIN_TOLERANCE;
+        }
+
+        long reportUnclaimed(ReconciliationListener listener) {
+
+            long unclaimed = 0;
+            for (int i = find(next, 0); i < size; i = find(next, i + 1)) {
+                listener.unmatchedLedger(lines[i], MinorUnits.toCash(amounts[i], currency));
+                unclaimed++;
+            }
+            return unclaimed;
+        }
+
+        private void take(int index, ReconciliationListener listener, long line, Cash cash, MatchType matchType) {
+
+            next[index] = index + 1;
+            previous[index + 1] = index;
+
+            listener.matched(line, cash, lines[index], MinorUnits.toCash(amounts[index], currency), matchType);
+        }
+
+        private int lowerBound(long amount) {
+
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (amounts[mid] < amount) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int find(int[] parent, int index) {
+
+            int root = index;
+            while (parent[root] != root) {
+                root = parent[root];
+            }
+            while (parent[index] != root) {
+                int following = parent[index];
+                parent[index] = root;
+                index = following;
+            }
+            return root;
+        }
+
+        // Sorts amounts and lines together by amount then by line, without boxing either
+        private void heapSort() {
+
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(i, size);
+            }
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private void siftDown(int root, int end) {
+
+            while (true) {
+                int child = (root << 1) + 1;
+                if (child >= end) {
+                    return;
+                }
+                if (child + 1 < end && isLess(child, child + 1)) {
+                    child++;
+                }
+                if (!isLess(root, child)) {
+                    return;
+                }
+                swap(root, child);
+                root = child;
+            }
+        }
+
+        private boolean isLess(int i, int j) {
+            return amounts[i] < amounts[j] || (amounts[i] == amounts[j] && lines[i] < lines[j]);
+        }
+
+        private void swap(int i, int j) {
+            long amount = amounts[i];
+            amounts[i] = amounts[j];
+            amounts[j] = amount;
+            int line = lines[i];
+            lines[i] = lines[j];
+            lines[j] = line;
+        }
+    }
+}
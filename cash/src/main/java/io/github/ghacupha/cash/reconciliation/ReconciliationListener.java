@@ -0,0 +1,57 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.reconciliation;
+
+import io.github.ghacupha.cash.Cash;
+
+/**
+ * Receives the results of a reconciliation as they are found, so that the caller does not have to
+ * hold the results of millions of lines in memory
+ *
+ * @author edwin.njeru
+ */
+public interface ReconciliationListener {
+
+    /**
+     * Called when a statement item has been paired with a ledger item
+     *
+     * @param statementLine Zero-based position of the item in the statement
+     * @param statementCash {@link Cash} amount from the statement
+     * @param ledgerLine    Zero-based position of the item in the ledger
+     * @param ledgerCash    {@link Cash} amount from the ledger
+     * @param matchType     {@link MatchType} of the pairing
+     */
+    void matched(long statementLine, Cash statementCash, long ledgerLine, Cash ledgerCash, MatchType matchType);
+
+    /**
+     * Called when a statement item has no counterpart in the ledger
+     *
+     * @param statementLine Zero-based position of the item in the statement
+     * @param statementCash {@link Cash} amount from the statement
+     */
+    void unmatchedStatement(long statementLine, Cash statementCash);
+
+    /**
+     * Called when a ledger item has no counterpart in the statement. These are reported once the statement
+     * has been exhausted
+     *
+     * @param ledgerLine Zero-based position of the item in the ledger
+     * @param ledgerCash {@link Cash} amount from the ledger
+     */
+    void unmatchedLedger(long ledgerLine, Cash ledgerCash);
+}
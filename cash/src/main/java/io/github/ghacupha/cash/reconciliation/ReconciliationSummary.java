@@ -0,0 +1,76 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.reconciliation;
+
+/**
+ * Immutable counts of the outcome of a reconciliation
+ *
+ * @author edwin.njeru
+ */
+public class ReconciliationSummary {
+
+    private final long exactMatches;
+    private final long toleranceMatches;
+    private final long unmatchedStatement;
+    private final long unmatchedLedger;
+
+    public ReconciliationSummary(long exactMatches, long toleranceMatches, long unmatchedStatement, long unmatchedLedger) {
+        this.exactMatches = exactMatches;
+        this.toleranceMatches = toleranceMatches;
+        this.unmatchedStatement = unmatchedStatement;
+        this.unmatchedLedger = unmatchedLedger;
+    }
+
+    /**
+     * @return Number of pairs whose amounts are identical
+     */
+    public long getExactMatches() {
+        return exactMatches;
+    }
+
+    /**
+     * @return Number of pairs whose amounts differ within the tolerance
+     */
+    public long getToleranceMatches() {
+        return toleranceMatches;
+    }
+
+    /**
+     * @return Number of statement items without a counterpart in the ledger
+     */
+    public long getUnmatchedStatement() {
+        return unmatchedStatement;
+    }
+
+    /**
+     * @return Number of ledger items without a counterpart in the statement
+     */
+    public long getUnmatchedLedger() {
+        return unmatchedLedger;
+    }
+
+    @Override
+    public String toString() {
+        return "ReconciliationSummary{" +
+            "exactMatches=" + exactMatches +
+            ", toleranceMatches=" + toleranceMatches +
+            ", unmatchedStatement=" + unmatchedStatement +
+            ", unmatchedLedger=" + unmatchedLedger +
+            '}';
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import java.util.Currency;
+
+/**
+ * Mutable running count, sum, minimum and maximum of amounts in minor units of a single currency
+ *
+ * @author edwin.njeru
+ */
+final class Accumulator {
+
+    private final Currency currency;
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    Accumulator(Currency currency) {
+        this.currency = currency;
+    }
+
+    void add(long amount) {
+        count++;
+        sum = Math.addExact(sum, amount);
+        if (amount < min) {
+            min = amount;
+        }
+        if (amount > max) {
+            max = amount;
+        }
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    void reset() {
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    CashAggregate toAggregate() {
+        return new CashAggregate(currency, count, sum, min, max);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.MinorUnits;
+
+import java.util.Currency;
+
+/**
+ * Immutable count, sum, minimum and maximum of a run of {@link Cash} items in a single currency
+ *
+ * @author edwin.njeru
+ */
+public class CashAggregate {
+
+    private final Currency currency;
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    CashAggregate(Currency currency, long count, long sum, long min, long max) {
+        this.currency = currency;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return {@link Currency} of the aggregated items
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return Number of items aggregated
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Total of the aggregated items
+     */
+    public Cash getSum() {
+        return MinorUnits.toCash(sum, currency);
+    }
+
+    /**
+     * @return Smallest of the aggregated items
+     */
+    public Cash getMin() {
+        return MinorUnits.toCash(min, currency);
+    }
+
+    /**
+     * @return Largest of the aggregated items
+     */
+    public Cash getMax() {
+        return MinorUnits.toCash(max, currency);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        CashAggregate that = (CashAggregate) o;
+
+        return count == that.count && sum == that.sum && min == that.min && max == that.max && currency.equals(that.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = currency.hashCode();
+        result = 31 * result + Long.hashCode(count);
+        result = 31 * result + Long.hashCode(sum);
+        result = 31 * result + Long.hashCode(min);
+        result = 31 * result + Long.hashCode(max);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CashAggregate{" +
+            "count=" + count +
+            ", sum=" + getSum() +
+            ", min=" + getMin() +
+            ", max=" + getMax() +
+            '}';
+    }
+}
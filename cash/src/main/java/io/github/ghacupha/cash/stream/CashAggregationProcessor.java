@@ -0,0 +1,258 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import io.github.ghacupha.cash.Cash;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base of the {@link Processor}s that aggregate a stream of {@link Cash} items. Each processor serves a
+ * single subscriber and requests items from upstream in batches, but only while the items in flight
+ * plus the results waiting for the subscriber fit in twice the batch size. A slow subscriber therefore
+ * slows the upstream down instead of growing a buffer. The lock on this only guards the state of the
+ * processor; upstream and the subscriber are always called after it has been released, so a publisher
+ * that signals while holding a lock of its own cannot deadlock against the processor.
+ * <p>
+ * Subclasses receive items one at a time through {@link #accept(Cash)} on the upstream thread, and
+ * publish results with {@link #emit(Object)}.
+ *
+ * @param <R> Type of the results emitted
+ * @author edwin.njeru
+ */
+public abstract class CashAggregationProcessor<R> implements Processor<Cash, R> {
+
+    /**
+     * Number of items requested from upstream at a time when none is specified
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final int batchSize;
+    private final AtomicLong received = new AtomicLong();
+
+    private volatile Subscription upstream;
+    private volatile Lane<R> lane;
+
+    // written while holding the lock on this, read without it on the hot path
+    private volatile long requested;
+    private volatile boolean terminated;
+
+    // guarded by this
+    private boolean completed;
+    private Throwable error;
+
+    /**
+     * @param batchSize Number of items requested from upstream at a time
+     */
+    protected CashAggregationProcessor(int batchSize) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive : " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Called for each item from upstream
+     *
+     * @param cash {@link Cash} item
+     */
+    protected abstract void accept(Cash cash);
+
+    /**
+     * Called once upstream has completed, before the subscriber is completed, to emit any partial result
+     */
+    protected void finish() {
+    }
+
+    /**
+     * Publishes a result to the subscriber
+     *
+     * @param result The result to be published
+     */
+    protected final void emit(R result) {
+        lane.offer(result);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super R> subscriber) {
+
+        Objects.requireNonNull(subscriber, "Rule 1.9 : the subscriber cannot be null");
+
+        Lane<R> created = new Lane<>(subscriber, this::replenish);
+        boolean accepted;
+        boolean upstreamCompleted;
+        Throwable upstreamError;
+        synchronized (this) {
+            accepted = lane == null;
+            if (accepted) {
+                lane = created;
+            }
+            // a terminal signal that arrives from now on finds the lane and is passed on by its own thread
+            upstreamCompleted = completed;
+            upstreamError = error;
+        }
+
+        if (!accepted) {
+            subscriber.onSubscribe(Cancelled.INSTANCE);
+            subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+            return;
+        }
+
+        created.start();
+        if (upstreamCompleted) {
+            complete();
+        } else if (upstreamError != null) {
+            created.error(upstreamError);
+        }
+        replenish();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+
+        Objects.requireNonNull(subscription, "Rule 2.13 : the subscription cannot be null");
+
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        replenish();
+    }
+
+    @Override
+    public void onNext(Cash cash) {
+
+        Objects.requireNonNull(cash, "Rule 2.13 : the item cannot be null");
+
+        received.incrementAndGet();
+        if (terminated) {
+            return;
+        }
+
+        try {
+            accept(cash);
+        } catch (RuntimeException e) {
+            upstream.cancel();
+            onError(e);
+            return;
+        }
+        replenish();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+
+        Objects.requireNonNull(throwable, "Rule 2.13 : the throwable cannot be null");
+
+        Lane<R> current;
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            error = throwable;
+            current = lane;
+        }
+        if (current != null) {
+            current.error(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+
+        Lane<R> current;
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            completed = true;
+            current = lane;
+        }
+        if (current != null) {
+            complete();
+        }
+    }
+
+    private void complete() {
+
+        try {
+            finish();
+        } catch (RuntimeException e) {
+            lane.error(e);
+            return;
+        }
+        lane.complete();
+    }
+
+    private void replenish() {
+
+        Lane<R> current = lane;
+
+        // cheap check so that most items do not take the lock
+        if (current == null || (!current.isCancelled() && requested - received.get() + current.buffered() > batchSize)) {
+            return;
+        }
+
+        Subscription subscription;
+        boolean cancel;
+        synchronized (this) {
+            subscription = upstream;
+            if (subscription == null || terminated) {
+                return;
+            }
+
+            cancel = current.isCancelled();
+            if (cancel) {
+                terminated = true;
+            } else if (requested - received.get() + current.buffered() <= batchSize) {
+                requested += batchSize;
+            } else {
+                return;
+            }
+        }
+
+        if (cancel) {
+            subscription.cancel();
+        } else {
+            subscription.request(batchSize);
+        }
+    }
+
+    /**
+     * Subscription handed to subscribers that are turned away
+     */
+    enum Cancelled implements Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable per-currency aggregates of a window of {@link io.github.ghacupha.cash.Cash} items
+ *
+ * @author edwin.njeru
+ */
+public class CashWindow {
+
+    private final long sequence;
+    private final long itemCount;
+    private final Map<Currency, CashAggregate> aggregates;
+
+    CashWindow(long sequence, long itemCount, Collection<Accumulator> accumulators) {
+        this.sequence = sequence;
+        this.itemCount = itemCount;
+
+        Map<Currency, CashAggregate> map = new LinkedHashMap<>();
+        for (Accumulator accumulator : accumulators) {
+            if (!accumulator.isEmpty()) {
+                CashAggregate aggregate = accumulator.toAggregate();
+                map.put(aggregate.getCurrency(), aggregate);
+            }
+        }
+        this.aggregates = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * @return Zero-based position of this window in the sequence of windows emitted
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return Number of items in the window, across all currencies
+     */
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * @return Unmodifiable map of the aggregate of each currency present in the window
+     */
+    public Map<Currency, CashAggregate> getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * @param currency {@link Currency} whose aggregate is required
+     * @return {@link CashAggregate} of the currency or null if the window has no items in that currency
+     */
+    public CashAggregate getAggregate(Currency currency) {
+        return aggregates.get(currency);
+    }
+
+    @Override
+    public String toString() {
+        return "CashWindow{" +
+            "sequence=" + sequence +
+            ", itemCount=" + itemCount +
+            ", aggregates=" + aggregates.values() +
+            '}';
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import io.github.ghacupha.cash.Cash;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Currency;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits a stream of {@link Cash} items into one stream per currency, each delivered to the subscriber
+ * routed to that currency. Items in currencies without a route are counted and dropped.
+ * <p>
+ * Items are requested from upstream in batches, and only while the items in flight plus the fullest of
+ * the routes' buffers fit in twice the batch size. The stream therefore moves at the pace of the slowest
+ * route, and a route that stops requesting eventually stops all of them. Cancelled routes are ignored
+ * and upstream is cancelled once every route has cancelled.
+ * <p>
+ * Upstream and the routes are never called while the lock on this is held, so an asynchronous publisher
+ * that takes a lock of its own in {@code request} cannot deadlock against the fan out.
+ *
+ * @author edwin.njeru
+ */
+public class CurrencyFanOut implements Subscriber<Cash> {
+
+    private final int batchSize;
+    private final Map<Currency, Lane<Cash>> lanes = new ConcurrentHashMap<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong unrouted = new AtomicLong();
+
+    private volatile Subscription upstream;
+    // written while holding the lock on this, read without it on the hot path
+    private volatile long requested;
+    private volatile boolean terminated;
+
+    public CurrencyFanOut() {
+        this(CashAggregationProcessor.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize Number of items requested from upstream at a time
+     */
+    public CurrencyFanOut(int batchSize) {
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive : " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Routes the items in the currency given to the subscriber. Routes must be set up before this is
+     * subscribed to upstream
+     *
+     * @param currency   {@link Currency} of the items to be routed
+     * @param subscriber {@link Subscriber} to receive the items
+     * @return This, for chaining
+     */
+    public CurrencyFanOut route(Currency currency, Subscriber<? super Cash> subscriber) {
+
+        Objects.requireNonNull(currency, "The currency cannot be null");
+        Objects.requireNonNull(subscriber, "Rule 1.9 : the subscriber cannot be null");
+
+        if (upstream != null) {
+            throw new IllegalStateException("Routes cannot be added once upstream has been subscribed to");
+        }
+
+        Lane<Cash> lane = new Lane<>(subscriber, this::replenish);
+        if (lanes.putIfAbsent(currency, lane) != null) {
+            throw new IllegalStateException("The currency " + currency + " is already routed");
+        }
+        lane.start();
+        return this;
+    }
+
+    /**
+     * @return Number of items dropped because their currency has no route
+     */
+    public long getUnrouted() {
+        return unrouted.get();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+
+        Objects.requireNonNull(subscription, "Rule 2.13 : the subscription cannot be null");
+
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        replenish();
+    }
+
+    @Override
+    public void onNext(Cash cash) {
+
+        Objects.requireNonNull(cash, "Rule 2.13 : the item cannot be null");
+
+        received.incrementAndGet();
+
+        Lane<Cash> lane = lanes.get(cash.getCurrency());
+        if (lane == null) {
+            unrouted.incrementAndGet();
+        } else {
+            lane.offer(cash);
+        }
+        replenish();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+
+        Objects.requireNonNull(throwable, "Rule 2.13 : the throwable cannot be null");
+
+        if (terminate()) {
+            lanes.values().forEach(lane -> lane.error(throwable));
+        }
+    }
+
+    @Override
+    public void onComplete() {
+
+        if (terminate()) {
+            lanes.values().forEach(Lane::complete);
+        }
+    }
+
+    private synchronized boolean terminate() {
+
+        if (terminated) {
+            return false;
+        }
+        terminated = true;
+        return true;
+    }
+
+    private void replenish() {
+
+        // cheap check so that most items do not take the lock
+        if (upstream == null || terminated || (requested - received.get() + maxBuffered() > batchSize && !allCancelled())) {
+            return;
+        }
+
+        boolean cancel;
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+
+            cancel = allCancelled();
+            if (cancel) {
+                terminated = true;
+            } else if (requested - received.get() + maxBuffered() <= batchSize) {
+                requested += batchSize;
+            } else {
+                return;
+            }
+        }
+
+        if (cancel) {
+            upstream.cancel();
+        } else {
+            upstream.request(batchSize);
+        }
+    }
+
+    private int maxBuffered() {
+
+        int buffered = 0;
+        for (Lane<Cash> lane : lanes.values()) {
+            if (!lane.isCancelled()) {
+                buffered = Math.max(buffered, lane.buffered());
+            }
+        }
+        return buffered;
+    }
+
+    private boolean allCancelled() {
+
+        for (Lane<Cash> lane : lanes.values()) {
+            if (!lane.isCancelled()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
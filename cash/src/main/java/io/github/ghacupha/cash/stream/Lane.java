@@ -0,0 +1,177 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers items for a single downstream {@link Subscriber} and hands them over only as fast as that
+ * subscriber requests them. Emission is serialized through a work-in-progress counter so that items,
+ * requests and terminal signals arriving on different threads never overlap.
+ * <p>
+ * The lane does not bound its own buffer; its owner does so by requesting from upstream only while
+ * {@link #buffered()} leaves room. A request for a non positive number of items cancels the lane before
+ * the subscriber is sent the error required by rule 3.9, so that its owner stops feeding it.
+ * <p>
+ * Nothing is emitted before {@link #start()} has handed the subscriber its subscription. An owner may
+ * therefore publish the lane under its lock and start it after releasing the lock, and no item or
+ * terminal signal that arrives in between can overtake {@code onSubscribe}.
+ *
+ * @param <R> Type of the items emitted
+ * @author edwin.njeru
+ */
+final class Lane<R> implements Subscription {
+
+    private final Subscriber<? super R> subscriber;
+    private final Runnable onDrained;
+
+    private final Queue<R> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean started;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile Throwable violation;
+    private volatile boolean cancelled;
+    private boolean terminated;
+
+    /**
+     * @param subscriber {@link Subscriber} to which items are emitted
+     * @param onDrained  Called whenever items have been emitted, so that the owner can request more from upstream
+     */
+    Lane(Subscriber<? super R> subscriber, Runnable onDrained) {
+        this.subscriber = subscriber;
+        this.onDrained = onDrained;
+    }
+
+    void start() {
+        subscriber.onSubscribe(this);
+        started = true;
+        drain();
+    }
+
+    void offer(R item) {
+        if (cancelled) {
+            return;
+        }
+        buffered.incrementAndGet();
+        queue.offer(item);
+        drain();
+    }
+
+    void complete() {
+        done = true;
+        drain();
+    }
+
+    void error(Throwable throwable) {
+        error = throwable;
+        done = true;
+        drain();
+    }
+
+    int buffered() {
+        return buffered.get();
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void request(long n) {
+
+        if (n <= 0) {
+            violation = new IllegalArgumentException("Rule 3.9 : the number of elements requested must be positive : " + n);
+            cancel();
+            drain();
+            return;
+        }
+
+        long current;
+        do {
+            current = demand.get();
+            if (current == Long.MAX_VALUE) {
+                break;
+            }
+        } while (!demand.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        queue.clear();
+        buffered.set(0);
+        onDrained.run();
+    }
+
+    private void drain() {
+
+        if (!started || wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            long emitted = 0;
+            long requested = demand.get();
+
+            while (emitted != requested && !cancelled) {
+                R item = queue.poll();
+                if (item == null) {
+                    break;
+                }
+                buffered.decrementAndGet();
+                subscriber.onNext(item);
+                emitted++;
+            }
+
+            if (emitted > 0) {
+                if (requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                onDrained.run();
+            }
+
+            if (!terminated && violation != null) {
+                terminated = true;
+                subscriber.onError(violation);
+            } else if (done && !terminated && !cancelled && queue.isEmpty()) {
+                terminated = true;
+                Throwable throwable = error;
+                if (throwable == null) {
+                    subscriber.onComplete();
+                } else {
+                    subscriber.onError(throwable);
+                }
+            }
+
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.MinorUnits;
+
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Emits the running count, total, minimum and maximum of the currency of every item received, so
+ * that each item is followed by the aggregate of all the items so far in its currency
+ *
+ * @author edwin.njeru
+ */
+public class RunningTotalsProcessor extends CashAggregationProcessor<CashAggregate> {
+
+    private final Map<Currency, Accumulator> accumulators = new HashMap<>();
+
+    public RunningTotalsProcessor() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize Number of items requested from upstream at a time
+     */
+    public RunningTotalsProcessor(int batchSize) {
+        super(batchSize);
+    }
+
+    @Override
+    protected void accept(Cash cash) {
+
+        Accumulator accumulator = accumulators.computeIfAbsent(cash.getCurrency(), Accumulator::new);
+        accumulator.add(MinorUnits.of(cash));
+
+        emit(accumulator.toAggregate());
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.MinorUnits;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Emits the per-currency aggregates of the most recent items every time a fixed number of new items has
+ * been received. The window is held in primitive ring buffers of amounts in minor units and of currency
+ * slots, so its memory does not depend on the length of the stream.
+ * <p>
+ * Each window is aggregated by scanning the ring, which costs time in proportion to the window size on
+ * every emission; the step should be chosen accordingly.
+ *
+ * @author edwin.njeru
+ */
+public class SlidingWindowProcessor extends CashAggregationProcessor<CashWindow> {
+
+    private final int windowSize;
+    private final int step;
+
+    private final long[] amounts;
+    private final int[] slots;
+    private final Map<Currency, Integer> slotOfCurrency = new HashMap<>();
+    private final List<Accumulator> accumulators = new ArrayList<>();
+
+    private long received;
+    private int sinceEmission;
+    private long sequence;
+
+    /**
+     * @param windowSize Number of most recent items in each window
+     * @param step       Number of new items received between emissions
+     */
+    public SlidingWindowProcessor(int windowSize, int step) {
+        this(windowSize, step, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param windowSize Number of most recent items in each window
+     * @param step       Number of new items received between emissions
+     * @param batchSize  Number of items requested from upstream at a time
+     */
+    public SlidingWindowProcessor(int windowSize, int step, int batchSize) {
+        super(batchSize);
+
+        if (windowSize < 1 || step < 1) {
+            throw new IllegalArgumentException("The window size and step must be positive : " + windowSize + ", " + step);
+        }
+        this.windowSize = windowSize;
+        this.step = step;
+        this.amounts = new long[windowSize];
+        this.slots = new int[windowSize];
+    }
+
+    @Override
+    protected void accept(Cash cash) {
+
+        int position = (int) (received++ % windowSize);
+        amounts[position] = MinorUnits.of(cash);
+        slots[position] = slotOf(cash.getCurrency());
+
+        if (++sinceEmission == step) {
+            close();
+        }
+    }
+
+    @Override
+    protected void finish() {
+
+        if (sinceEmission > 0) {
+            close();
+        }
+    }
+
+    private int slotOf(Currency currency) {
+
+        Integer slot = slotOfCurrency.get(currency);
+        if (slot == null) {
+            slot = accumulators.size();
+            slotOfCurrency.put(currency, slot);
+            accumulators.add(new Accumulator(currency));
+        }
+        return slot;
+    }
+
+    private void close() {
+
+        int itemCount = (int) Math.min(received, windowSize);
+
+        accumulators.forEach(Accumulator::reset);
+        for (int i = 0; i < itemCount; i++) {
+            accumulators.get(slots[i]).add(amounts[i]);
+        }
+
+        sinceEmission = 0;
+        emit(new CashWindow(sequence++, itemCount, accumulators));
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.MinorUnits;
+
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits the stream into consecutive, non-overlapping windows of a fixed number of items and emits the
+ * per-currency aggregates of each window once it is full. A final, shorter window is emitted when
+ * upstream completes part way through a window.
+ *
+ * @author edwin.njeru
+ */
+public class TumblingWindowProcessor extends CashAggregationProcessor<CashWindow> {
+
+    private final int windowSize;
+    private final Map<Currency, Accumulator> accumulators = new LinkedHashMap<>();
+
+    private long sequence;
+    private int itemCount;
+
+    /**
+     * @param windowSize Number of items in each window
+     */
+    public TumblingWindowProcessor(int windowSize) {
+        this(windowSize, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param windowSize Number of items in each window
+     * @param batchSize  Number of items requested from upstream at a time
+     */
+    public TumblingWindowProcessor(int windowSize, int batchSize) {
+        super(batchSize);
+
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The window size must be positive : " + windowSize);
+        }
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    protected void accept(Cash cash) {
+
+        accumulators.computeIfAbsent(cash.getCurrency(), Accumulator::new).add(MinorUnits.of(cash));
+
+        if (++itemCount == windowSize) {
+            close();
+        }
+    }
+
+    @Override
+    protected void finish() {
+
+        if (itemCount > 0) {
+            close();
+        }
+    }
+
+    private void close() {
+
+        CashWindow window = new CashWindow(sequence++, itemCount, accumulators.values());
+
+        // the accumulators are kept so that recurring currencies do not allocate new ones every window
+        accumulators.values().forEach(Accumulator::reset);
+        itemCount = 0;
+
+        emit(window);
+    }
+}
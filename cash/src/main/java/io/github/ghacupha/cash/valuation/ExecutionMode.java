@@ -0,0 +1,78 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Selects the threads on which the work units of a valuation run
+ *
+ * @author edwin.njeru
+ */
+public enum ExecutionMode {
+
+    /**
+     * Work units run on the common {@link java.util.concurrent.ForkJoinPool}
+     */
+    FORK_JOIN,
+
+    /**
+     * Every work unit runs on its own virtual thread. Requires a Java 21 or later runtime
+     */
+    VIRTUAL_THREADS;
+
+    /**
+     * @return True if the current runtime can run this mode
+     */
+    public boolean isSupported() {
+        return this == FORK_JOIN || VirtualThreads.FACTORY != null;
+    }
+
+    /**
+     * Virtual threads are looked up reflectively since this library is built for Java 8
+     */
+    static final class VirtualThreads {
+
+        static final Method FACTORY = lookup();
+
+        private VirtualThreads() {
+        }
+
+        static ExecutorService newExecutor() {
+
+            if (FACTORY == null) {
+                throw new UnsupportedOperationException("Virtual threads require a Java 21 or later runtime");
+            }
+            try {
+                return (ExecutorService) FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException("Virtual threads could not be started", e);
+            }
+        }
+
+        private static Method lookup() {
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RateProvider} backed by a local table of rates against a single base currency. Rates between
+ * two other currencies are crossed through the base currency.
+ *
+ * @author edwin.njeru
+ */
+public class FixedRateProvider implements RateProvider {
+
+    private static final int CROSS_RATE_SCALE = 16;
+
+    private final Currency base;
+    private final Map<Currency, BigDecimal> ratesToBase = new ConcurrentHashMap<>();
+
+    /**
+     * @param base {@link Currency} against which rates are quoted
+     */
+    public FixedRateProvider(Currency base) {
+        this.base = base;
+        this.ratesToBase.put(base, BigDecimal.ONE);
+    }
+
+    /**
+     * @param currency   {@link Currency} being quoted
+     * @param rateToBase Number of units of the base currency in one unit of the currency
+     * @return This, for chaining
+     */
+    public FixedRateProvider withRate(Currency currency, BigDecimal rateToBase) {
+
+        if (rateToBase.signum() <= 0) {
+            throw new IllegalArgumentException("The rate for " + currency + " must be positive : " + rateToBase);
+        }
+        ratesToBase.put(currency, rateToBase);
+        return this;
+    }
+
+    @Override
+    public BigDecimal getRate(Currency from, Currency to) {
+
+        BigDecimal fromRate = rateToBase(from);
+
+        if (to.equals(base)) {
+            return fromRate;
+        }
+
+        return fromRate.divide(rateToBase(to), CROSS_RATE_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private BigDecimal rateToBase(Currency currency) {
+
+        BigDecimal rate = ratesToBase.get(currency);
+        if (rate == null) {
+            throw new IllegalArgumentException("No rate is known for " + currency + " against " + base);
+        }
+        return rate;
+    }
+}
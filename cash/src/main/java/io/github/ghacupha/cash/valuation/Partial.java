@@ -0,0 +1,74 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+import java.util.Arrays;
+import java.util.Currency;
+
+/**
+ * Per-currency sums in minor units of the positions of one work unit. A portfolio rarely holds more than
+ * a handful of currencies, so these are kept in small parallel arrays searched from the most recently
+ * used currency rather than in a map.
+ *
+ * @author edwin.njeru
+ */
+final class Partial {
+
+    private Currency[] currencies = new Currency[4];
+    private long[] sums = new long[4];
+    private int size;
+    private int last;
+
+    void add(Currency currency, long minorUnits) {
+
+        int slot = slotOf(currency);
+        sums[slot] = Math.addExact(sums[slot], minorUnits);
+    }
+
+    int size() {
+        return size;
+    }
+
+    Currency currency(int slot) {
+        return currencies[slot];
+    }
+
+    long sum(int slot) {
+        return sums[slot];
+    }
+
+    private int slotOf(Currency currency) {
+
+        if (size > 0 && currencies[last] == currency) {
+            return last;
+        }
+        for (int i = 0; i < size; i++) {
+            if (currencies[i].equals(currency)) {
+                last = i;
+                return i;
+            }
+        }
+        if (size == currencies.length) {
+            currencies = Arrays.copyOf(currencies, size << 1);
+            sums = Arrays.copyOf(sums, size << 1);
+        }
+        currencies[size] = currency;
+        last = size;
+        return size++;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+/**
+ * Receives the progress of a valuation. It is called from the worker threads as each work unit completes,
+ * so implementations must be thread safe and quick
+ *
+ * @author edwin.njeru
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * @param completedUnits Number of work units completed so far
+     * @param totalUnits     Number of work units in the valuation
+     */
+    void onProgress(int completedUnits, int totalUnits);
+}
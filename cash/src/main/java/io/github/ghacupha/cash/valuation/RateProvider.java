@@ -0,0 +1,39 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Source of the exchange rates used to convert positions into the reporting currency. Implementations
+ * are called concurrently, once per currency per valuation, and may block.
+ *
+ * @author edwin.njeru
+ */
+@FunctionalInterface
+public interface RateProvider {
+
+    /**
+     * @param from {@link Currency} of the amount being converted
+     * @param to   {@link Currency} into which the amount is converted
+     * @return Number of units of the target currency in one unit of the source currency
+     * @throws IllegalArgumentException if no rate is known for the pair
+     */
+    BigDecimal getRate(Currency from, Currency to);
+}
@@ -0,0 +1,82 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+import io.github.ghacupha.cash.Cash;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+
+/**
+ * Immutable result of a valuation : the total of each currency held, the rates used to convert them
+ * and their combined value in the reporting currency
+ *
+ * @author edwin.njeru
+ */
+public class Valuation {
+
+    private final Map<Currency, Cash> totals;
+    private final Map<Currency, BigDecimal> rates;
+    private final Cash value;
+    private final ValuationMetrics metrics;
+
+    Valuation(Map<Currency, Cash> totals, Map<Currency, BigDecimal> rates, Cash value, ValuationMetrics metrics) {
+        this.totals = totals;
+        this.rates = rates;
+        this.value = value;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return Unmodifiable map of the total held in each currency, ordered by currency code
+     */
+    public Map<Currency, Cash> getTotals() {
+        return totals;
+    }
+
+    /**
+     * @return Unmodifiable map of the rate used to convert each currency into the reporting currency
+     */
+    public Map<Currency, BigDecimal> getRates() {
+        return rates;
+    }
+
+    /**
+     * @return Value of all positions in the reporting currency
+     */
+    public Cash getValue() {
+        return value;
+    }
+
+    /**
+     * @return {@link ValuationMetrics} of the valuation
+     */
+    public ValuationMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "Valuation{" +
+            "value=" + value +
+            ", totals=" + totals.values() +
+            ", metrics=" + metrics +
+            '}';
+    }
+}
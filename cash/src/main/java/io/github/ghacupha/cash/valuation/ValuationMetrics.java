@@ -0,0 +1,117 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable timings and counts of a valuation
+ *
+ * @author edwin.njeru
+ */
+public class ValuationMetrics {
+
+    private final long positions;
+    private final int workUnits;
+    private final long elapsedNanos;
+    private final long rateLookupNanos;
+    private final long minUnitNanos;
+    private final long maxUnitNanos;
+    private final long meanUnitNanos;
+
+    ValuationMetrics(long positions, long elapsedNanos, long rateLookupNanos, long[] unitNanos) {
+        this.positions = positions;
+        this.workUnits = unitNanos.length;
+        this.elapsedNanos = elapsedNanos;
+        this.rateLookupNanos = rateLookupNanos;
+
+        long min = unitNanos.length == 0 ? 0 : Long.MAX_VALUE;
+        long max = 0;
+        long total = 0;
+        for (long nanos : unitNanos) {
+            min = Math.min(min, nanos);
+            max = Math.max(max, nanos);
+            total += nanos;
+        }
+        this.minUnitNanos = min;
+        this.maxUnitNanos = max;
+        this.meanUnitNanos = unitNanos.length == 0 ? 0 : total / unitNanos.length;
+    }
+
+    /**
+     * @return Number of positions valued
+     */
+    public long getPositions() {
+        return positions;
+    }
+
+    /**
+     * @return Number of work units the positions were partitioned into
+     */
+    public int getWorkUnits() {
+        return workUnits;
+    }
+
+    /**
+     * @return Wall clock time of the whole valuation in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Wall clock time spent waiting for exchange rates in nanoseconds
+     */
+    public long getRateLookupNanos() {
+        return rateLookupNanos;
+    }
+
+    /**
+     * @return Shortest time taken by a work unit in nanoseconds
+     */
+    public long getMinUnitNanos() {
+        return minUnitNanos;
+    }
+
+    /**
+     * @return Longest time taken by a work unit in nanoseconds
+     */
+    public long getMaxUnitNanos() {
+        return maxUnitNanos;
+    }
+
+    /**
+     * @return Average time taken by a work unit in nanoseconds
+     */
+    public long getMeanUnitNanos() {
+        return meanUnitNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ValuationMetrics{" +
+            "positions=" + positions +
+            ", workUnits=" + workUnits +
+            ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+            ", rateLookupMillis=" + TimeUnit.NANOSECONDS.toMillis(rateLookupNanos) +
+            ", minUnitMicros=" + TimeUnit.NANOSECONDS.toMicros(minUnitNanos) +
+            ", maxUnitMicros=" + TimeUnit.NANOSECONDS.toMicros(maxUnitNanos) +
+            ", meanUnitMicros=" + TimeUnit.NANOSECONDS.toMicros(meanUnitNanos) +
+            '}';
+    }
+}
@@ -0,0 +1,300 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.MinorUnits;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Values a portfolio of positions in a single reporting currency. The positions are partitioned into
+ * work units which are summed per currency in minor units, in parallel, on the threads selected by the
+ * {@link ExecutionMode}. The partial sums are merged in the order of the work units and the rate of each
+ * currency is then looked up once, concurrently, so that a slow {@link RateProvider} costs one lookup per
+ * currency rather than one per position. On the fork join pool those lookups are run as managed
+ * blocks so that a blocking provider does not starve the common pool.
+ * <p>
+ * Every currency total is converted at full precision and the value is rounded once, using
+ * {@link RoundingMode#HALF_EVEN}, to the decimal places of the reporting currency.
+ *
+ * @author edwin.njeru
+ */
+public class ValuationService {
+
+    /**
+     * Number of positions in each work unit when none is specified
+     */
+    public static final int DEFAULT_PARTITION_SIZE = 65_536;
+
+    private final RateProvider rateProvider;
+    private final Currency reportingCurrency;
+    private final ExecutionMode executionMode;
+    private final int partitionSize;
+    private final ProgressListener progressListener;
+
+    /**
+     * @param rateProvider      {@link RateProvider} of exchange rates
+     * @param reportingCurrency {@link Currency} in which the portfolio is valued
+     */
+    public ValuationService(RateProvider rateProvider, Currency reportingCurrency) {
+        this(rateProvider, reportingCurrency, ExecutionMode.FORK_JOIN, DEFAULT_PARTITION_SIZE, (completed, total) -> {
+        });
+    }
+
+    /**
+     * @param rateProvider      {@link RateProvider} of exchange rates
+     * @param reportingCurrency {@link Currency} in which the portfolio is valued
+     * @param executionMode     {@link ExecutionMode} selecting the threads on which work units run
+     * @param partitionSize     Number of positions in each work unit
+     * @param progressListener  {@link ProgressListener} notified as work units complete
+     */
+    public ValuationService(RateProvider rateProvider, Currency reportingCurrency, ExecutionMode executionMode, int partitionSize,
+                            ProgressListener progressListener) {
+
+        Objects.requireNonNull(executionMode, "The execution mode cannot be null");
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("The partition size must be positive : " + partitionSize);
+        }
+        if (!executionMode.isSupported()) {
+            throw new UnsupportedOperationException(executionMode + " is not supported by this runtime");
+        }
+        this.rateProvider = Objects.requireNonNull(rateProvider, "The rate provider cannot be null");
+        this.reportingCurrency = Objects.requireNonNull(reportingCurrency, "The reporting currency cannot be null");
+        this.executionMode = executionMode;
+        this.partitionSize = partitionSize;
+        this.progressListener = Objects.requireNonNull(progressListener, "The progress listener cannot be null");
+    }
+
+    /**
+     * @param positions {@link Cash} positions to be valued
+     * @return {@link Valuation} of the positions
+     */
+    public Valuation value(List<? extends Cash> positions) {
+
+        return run(positions.size(), (from, to, partial) -> {
+            for (Cash position : positions.subList(from, to)) {
+                partial.add(position.getCurrency(), MinorUnits.of(position));
+            }
+        });
+    }
+
+    /**
+     * @param currency   {@link Currency} of every position
+     * @param minorUnits Positions in the minor units of the currency
+     * @return {@link Valuation} of the positions
+     */
+    public Valuation value(Currency currency, long[] minorUnits) {
+
+        return run(minorUnits.length, (from, to, partial) -> {
+            for (int i = from; i < to; i++) {
+                partial.add(currency, minorUnits[i]);
+            }
+        });
+    }
+
+    /**
+     * @param currencies {@link Currency} of each position
+     * @param minorUnits Positions in the minor units of their currency, in the same order as the currencies
+     * @return {@link Valuation} of the positions
+     */
+    public Valuation value(Currency[] currencies, long[] minorUnits) {
+
+        if (currencies.length != minorUnits.length) {
+            throw new IllegalArgumentException("There are " + currencies.length + " currencies for " + minorUnits.length + " amounts");
+        }
+
+        return run(minorUnits.length, (from, to, partial) -> {
+            for (int i = from; i < to; i++) {
+                partial.add(currencies[i], minorUnits[i]);
+            }
+        });
+    }
+
+    private Valuation run(int positions, WorkUnit workUnit) {
+
+        long start = System.nanoTime();
+
+        int units = (int) ((positions + (long) partitionSize - 1) / partitionSize);
+        long[] unitNanos = new long[units];
+        AtomicInteger completed = new AtomicInteger();
+
+        ExecutorService executor = executionMode == ExecutionMode.FORK_JOIN ? ForkJoinPool.commonPool() : ExecutionMode.VirtualThreads.newExecutor();
+        try {
+            List<Future<Partial>> partials = new ArrayList<>(units);
+            for (int unit = 0; unit < units; unit++) {
+                int index = unit;
+                int from = unit * partitionSize;
+                int to = (int) Math.min((long) from + partitionSize, positions);
+                partials.add(executor.submit(() -> {
+                    long unitStart = System.nanoTime();
+                    Partial partial = new Partial();
+                    workUnit.sum(from, to, partial);
+                    unitNanos[index] = System.nanoTime() - unitStart;
+                    progressListener.onProgress(completed.incrementAndGet(), units);
+                    return partial;
+                }));
+            }
+
+            // merged in order of work unit and of currency code so that the result never depends on scheduling
+            Map<String, long[]> sums = new TreeMap<>();
+            Map<String, Currency> currencies = new TreeMap<>();
+            for (Future<Partial> future : partials) {
+                Partial partial = await(future, partials);
+                for (int slot = 0; slot < partial.size(); slot++) {
+                    Currency currency = partial.currency(slot);
+                    currencies.putIfAbsent(currency.getCurrencyCode(), currency);
+                    long[] sum = sums.computeIfAbsent(currency.getCurrencyCode(), code -> new long[1]);
+                    sum[0] = Math.addExact(sum[0], partial.sum(slot));
+                }
+            }
+
+            long rateStart = System.nanoTime();
+            Map<Currency, Future<BigDecimal>> pendingRates = new LinkedHashMap<>();
+            for (Currency currency : currencies.values()) {
+                pendingRates.put(currency, currency.equals(reportingCurrency)
+                    ? CompletableFuture.completedFuture(BigDecimal.ONE)
+                    : CompletableFuture.supplyAsync(() -> lookupRate(currency), executor));
+            }
+
+            Map<Currency, Cash> totals = new LinkedHashMap<>();
+            Map<Currency, BigDecimal> rates = new LinkedHashMap<>();
+            BigDecimal value = BigDecimal.ZERO;
+            for (Map.Entry<Currency, Future<BigDecimal>> entry : pendingRates.entrySet()) {
+                Currency currency = entry.getKey();
+                long sum = sums.get(currency.getCurrencyCode())[0];
+                BigDecimal rate = await(entry.getValue(), pendingRates.values());
+
+                totals.put(currency, MinorUnits.toCash(sum, currency));
+                rates.put(currency, rate);
+                value = value.add(BigDecimal.valueOf(sum, MinorUnits.decimalPlaces(currency)).multiply(rate));
+            }
+            long rateNanos = System.nanoTime() - rateStart;
+
+            int decimalPlaces = MinorUnits.decimalPlaces(reportingCurrency);
+            Cash reportedValue = MinorUnits.toCash(value.setScale(decimalPlaces, RoundingMode.HALF_EVEN).unscaledValue().longValueExact(), reportingCurrency);
+
+            return new Valuation(Collections.unmodifiableMap(totals), Collections.unmodifiableMap(rates), reportedValue,
+                new ValuationMetrics(positions, System.nanoTime() - start, rateNanos, unitNanos));
+        } finally {
+            if (executionMode == ExecutionMode.VIRTUAL_THREADS) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * On the fork join pool the lookup is run as a {@link ForkJoinPool.ManagedBlocker}, so that the pool
+     * can add a thread while a blocking {@link RateProvider} holds one of its own. Virtual threads need
+     * no such help. Lookups are submitted as {@link CompletableFuture}s because waiting on one never runs
+     * it on the waiting thread, where a blocked lookup could not be compensated for
+     */
+    private BigDecimal lookupRate(Currency currency) {
+
+        if (executionMode != ExecutionMode.FORK_JOIN) {
+            return getRate(currency);
+        }
+
+        RateLookup lookup = new RateLookup(currency);
+        try {
+            ForkJoinPool.managedBlock(lookup);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValuationException("The rate lookup for " + currency + " was interrupted", e);
+        }
+        return lookup.rate;
+    }
+
+    private BigDecimal getRate(Currency currency) {
+
+        BigDecimal rate = rateProvider.getRate(currency, reportingCurrency);
+        if (rate == null) {
+            throw new IllegalArgumentException("No rate is known for " + currency + " against " + reportingCurrency);
+        }
+        return rate;
+    }
+
+    private static <T> T await(Future<T> future, Iterable<? extends Future<?>> siblings) {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            siblings.forEach(sibling -> sibling.cancel(true));
+            throw new ValuationException("The valuation was interrupted", e);
+        } catch (ExecutionException e) {
+            siblings.forEach(sibling -> sibling.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ValuationException("A work unit of the valuation failed", cause);
+        }
+    }
+
+    /**
+     * Lookup of a single rate that the fork join pool is told may block
+     */
+    private final class RateLookup implements ForkJoinPool.ManagedBlocker {
+
+        private final Currency currency;
+        private BigDecimal rate;
+
+        RateLookup(Currency currency) {
+            this.currency = currency;
+        }
+
+        @Override
+        public boolean block() {
+            rate = getRate(currency);
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return rate != null;
+        }
+    }
+
+    /**
+     * Sums the positions in the range given into the partial
+     */
+    @FunctionalInterface
+    private interface WorkUnit {
+
+        void sum(int from, int to, Partial partial);
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash;
+
+import org.joda.money.CurrencyMismatchException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Currency;
+
+import static io.github.ghacupha.cash.HardCash.dollar;
+import static io.github.ghacupha.cash.HardCash.shilling;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Lazy cash expressions rounded once")
+class CashExpressionTest {
+
+    @Test
+    @DisplayName("A chain of operations gives the same result as the cash operations when no rounding intervenes")
+    void chain() {
+
+        Cash result = CashExpression.of(shilling(100)).plus(shilling(20)).minus(shilling(3.33)).multiply(1.16).divide(12).evaluate();
+
+        assertEquals(shilling(11.28), result);
+    }
+
+    @Test
+    @DisplayName("Intermediate results are not rounded")
+    void roundedOnce() {
+
+        // step by step 0.05 * 0.5 is rounded to 0.02 before being tripled
+        assertEquals(dollar(0.06), dollar(0.05).multiply(0.5).multiply(3));
+        assertEquals(dollar(0.08), CashExpression.of(dollar(0.05)).multiply(0.5).multiply(3).evaluate());
+        assertEquals(dollar(0.07), CashExpression.of(dollar(0.05)).multiply(0.5).multiply(3).evaluate(RoundingMode.DOWN));
+    }
+
+    @Test
+    @DisplayName("Division is exact until the final rounding")
+    void division() {
+
+        assertEquals(dollar(33.33), CashExpression.of(dollar(100)).divide(3).evaluate());
+        assertEquals(dollar(100), CashExpression.of(dollar(100)).divide(3).multiply(3).evaluate());
+        assertThrows(ArithmeticException.class, () -> CashExpression.of(dollar(100)).divide(0));
+    }
+
+    @Test
+    @DisplayName("An expression over an input can be evaluated in bulk")
+    void bulk() {
+
+        CashExpression vat = CashExpression.input().plus(shilling(10)).multiply(1.16);
+
+        assertEquals(shilling(127.60), vat.evaluate(shilling(100), RoundingMode.HALF_EVEN));
+        assertEquals(Arrays.asList(shilling(11.60), shilling(12.76)), vat.evaluateAll(Arrays.asList(shilling(0), shilling(1)), RoundingMode.HALF_EVEN));
+        assertArrayEquals(new long[]{1160, 1276, 1161}, vat.evaluateAll(new long[]{0, 100, 1}, Currency.getInstance("KES"), RoundingMode.HALF_EVEN));
+        assertArrayEquals(new long[]{-5, 0, 15}, CashExpression.input().multiply(5).minus(shilling(0.05)).evaluateAll(new long[]{0, 1, 4}, Currency.getInstance("KES"), RoundingMode.HALF_EVEN));
+        assertThrows(IllegalStateException.class, vat::evaluate);
+    }
+
+    @Test
+    @DisplayName("Currencies cannot be mixed")
+    void currencyMismatch() {
+
+        assertThrows(CurrencyMismatchException.class, () -> CashExpression.of(shilling(1)).plus(dollar(1)));
+        assertThrows(CurrencyMismatchException.class, () -> CashExpression.input().plus(shilling(1)).evaluate(dollar(1), RoundingMode.HALF_EVEN));
+    }
+}
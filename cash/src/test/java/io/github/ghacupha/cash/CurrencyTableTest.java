@@ -0,0 +1,48 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash;
+
+import org.joda.money.CurrencyUnit;
+import org.joda.money.IllegalCurrencyException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Built-in currency table")
+class CurrencyTableTest {
+
+    @Test
+    @DisplayName("The table agrees with joda-money for every currency")
+    void agreesWithJoda() {
+
+        for (CurrencyUnit unit : CurrencyUnit.registeredCurrencies()) {
+            assertEquals(unit.getDecimalPlaces(), CurrencyTable.decimalPlaces(unit.getCode()), unit.getCode());
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown currencies are rejected")
+    void unknownCurrency() {
+
+        assertThrows(IllegalCurrencyException.class, () -> CurrencyTable.decimalPlaces("GNU"));
+        assertThrows(IllegalCurrencyException.class, () -> CurrencyTable.decimalPlaces("AAA"));
+        assertThrows(IllegalCurrencyException.class, () -> CurrencyTable.decimalPlaces("ZZZ"));
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.RoundingMode;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.StringJoiner;
+
+/**
+ * Cold start benchmark. Every scenario runs in a freshly forked JVM, which reports how long its first
+ * call took; the wall time of the whole JVM is measured as well. This is not a test, run it from the cash
+ * module with :
+ * <pre>
+ *     mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ *     java -cp target/classes:target/test-classes:$(cat target/classpath.txt) io.github.ghacupha.cash.StartupBenchmark
+ * </pre>
+ * or with {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.github.ghacupha.cash.StartupBenchmark}.
+ * The forks are given the class path this class was loaded from, so they can find the test classes
+ * even when this runs inside the JVM of maven
+ */
+public class StartupBenchmark {
+
+    private static final int FORKS = 10;
+    private static final String[] SCENARIOS = {"empty", "decimal-places", "expression-column", "hard-cash"};
+
+    public static void main(String[] args) throws IOException, InterruptedException, URISyntaxException {
+
+        if (args.length == 1) {
+            probe(args[0]);
+            return;
+        }
+
+        String classPath = classPath();
+        for (String scenario : SCENARIOS) {
+            long[] firstCallMicros = new long[FORKS];
+            long[] jvmMillis = new long[FORKS];
+            for (int fork = 0; fork < FORKS; fork++) {
+                long start = System.nanoTime();
+                firstCallMicros[fork] = fork(scenario, classPath);
+                jvmMillis[fork] = (System.nanoTime() - start) / 1_000_000;
+            }
+            System.out.printf("%-20s first call %,8d us   jvm %,6d ms   (medians of %d forks)%n", scenario, median(firstCallMicros), median(jvmMillis), FORKS);
+        }
+    }
+
+    private static void probe(String scenario) {
+
+        long start = System.nanoTime();
+        switch (scenario) {
+            case "decimal-places":
+                MinorUnits.decimalPlaces(Currency.getInstance("KES"));
+                break;
+            case "expression-column":
+                CashExpression.input().multiply(1.16).evaluateAll(new long[]{30050}, Currency.getInstance("KES"), RoundingMode.HALF_EVEN);
+                break;
+            case "hard-cash":
+                HardCash.of(300.50, "KES");
+                break;
+            default:
+                break;
+        }
+        System.out.println((System.nanoTime() - start) / 1000);
+    }
+
+    private static String classPath() throws URISyntaxException {
+
+        ClassLoader loader = StartupBenchmark.class.getClassLoader();
+        if (!(loader instanceof URLClassLoader)) {
+            return System.getProperty("java.class.path");
+        }
+
+        StringJoiner classPath = new StringJoiner(File.pathSeparator);
+        for (URL url : ((URLClassLoader) loader).getURLs()) {
+            classPath.add(new File(url.toURI()).getPath());
+        }
+        return classPath.toString();
+    }
+
+    private static long fork(String scenario, String classPath) throws IOException, InterruptedException {
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", classPath, StartupBenchmark.class.getName(), scenario)
+            .redirectErrorStream(true)
+            .start();
+
+        String output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            output = reader.readLine();
+        }
+        if (process.waitFor() != 0 || output == null) {
+            throw new IllegalStateException("The " + scenario + " probe failed : " + output);
+        }
+        return Long.parseLong(output.trim());
+    }
+
+    private static long median(long[] values) {
+
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.jdbc;
+
+import io.github.ghacupha.cash.Cash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.ghacupha.cash.HardCash.dollar;
+import static io.github.ghacupha.cash.HardCash.shilling;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Cash mapped to currency and minor units columns in an embedded database")
+class CashColumnsTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:cash");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE payment (id INT PRIMARY KEY, currency CHAR(3), amount BIGINT)");
+            statement.execute("CREATE SEQUENCE payment_id");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE payment");
+            statement.execute("DROP SEQUENCE payment_id");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Cash written in batches is read back unchanged")
+    void batchInsertAndRead() throws SQLException {
+
+        List<Cash> payments = Arrays.asList(shilling(300.50), dollar(12.07), null, shilling(-0.01));
+
+        long rows;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO payment (id, currency, amount) VALUES (?, ?, ?)")) {
+            CashColumns columns = new CashColumns(2, 3);
+            int[] id = {0};
+            rows = CashColumns.executeBatch(insert, payments.iterator(), 3, (statement, cash) -> {
+                statement.setInt(1, id[0]++);
+                columns.setCash(statement, cash);
+            });
+        }
+
+        List<Cash> read = new ArrayList<>();
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT currency, amount FROM payment ORDER BY id")) {
+            CashColumns columns = new CashColumns(1, 2);
+            while (resultSet.next()) {
+                read.add(columns.getCash(resultSet));
+            }
+        }
+
+        assertEquals(4, rows);
+        assertEquals(payments, read);
+    }
+
+    @Test
+    @DisplayName("Amounts are stored in minor units so that the database can sum them")
+    void amountsAreSummable() throws SQLException {
+
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO payment (id, currency, amount) VALUES (NEXT VALUE FOR payment_id, ?, ?)")) {
+            new CashColumns(1, 2).executeBatch(insert, Arrays.asList(shilling(300.50), shilling(0.75)));
+        }
+
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT currency, SUM(amount) AS total FROM payment GROUP BY currency")) {
+            assertTrue(resultSet.next());
+            assertEquals(shilling(301.25), CashColumns.getCash(resultSet, "currency", "total"));
+        }
+    }
+
+    @Test
+    @DisplayName("Null cash is stored as null columns")
+    void nullCash() throws SQLException {
+
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO payment (id, currency, amount) VALUES (1, ?, ?)")) {
+            new CashColumns(1, 2).setCash(insert, null);
+            insert.executeUpdate();
+        }
+
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT amount, currency FROM payment")) {
+            assertTrue(resultSet.next());
+            assertNull(new CashColumns(2, 1).getCash(resultSet));
+        }
+    }
+
+    @Test
+    @DisplayName("A row with a currency but no amount is not read as zero")
+    void nullAmount() throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO payment (id, currency, amount) VALUES (1, 'KES', NULL)");
+        }
+
+        try (Statement select = connection.createStatement();
+             ResultSet resultSet = select.executeQuery("SELECT currency, amount FROM payment")) {
+            assertTrue(resultSet.next());
+            assertThrows(SQLException.class, () -> new CashColumns(1, 2).getCash(resultSet));
+            assertThrows(SQLException.class, () -> CashColumns.getCash(resultSet, "currency", "amount"));
+        }
+    }
+}
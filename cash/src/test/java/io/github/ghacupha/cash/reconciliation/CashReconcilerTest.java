@@ -0,0 +1,132 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.reconciliation;
+
+import io.github.ghacupha.cash.Cash;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.ghacupha.cash.HardCash.dollar;
+import static io.github.ghacupha.cash.HardCash.euro;
+import static io.github.ghacupha.cash.HardCash.shilling;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Reconciliation of statement and ledger cash streams")
+class CashReconcilerTest {
+
+    @Test
+    @DisplayName("Exact matches are paired by currency and amount")
+    void exactMatches() {
+
+        RecordingListener listener = new RecordingListener();
+
+        ReconciliationSummary summary = new CashReconciler().reconcile(
+            Arrays.asList(shilling(100.50), dollar(100.50), shilling(20)),
+            Arrays.asList(dollar(100.50), shilling(20), shilling(100.50), shilling(5)),
+            listener);
+
+        assertEquals(3, summary.getExactMatches());
+        assertEquals(0, summary.getToleranceMatches());
+        assertEquals(0, summary.getUnmatchedStatement());
+        assertEquals(1, summary.getUnmatchedLedger());
+        assertEquals(Arrays.asList("0=2 EXACT", "1=0 EXACT", "2=1 EXACT"), listener.matches);
+        assertEquals(Arrays.asList("3 KES 5.0"), listener.unmatchedLedger);
+    }
+
+    @Test
+    @DisplayName("A ledger item is matched to one statement item only")
+    void duplicatesAreMatchedOnce() {
+
+        RecordingListener listener = new RecordingListener();
+
+        ReconciliationSummary summary = new CashReconciler().reconcile(
+            Arrays.asList(shilling(10), shilling(10), shilling(10)),
+            Arrays.asList(shilling(10), shilling(10)),
+            listener);
+
+        assertEquals(2, summary.getExactMatches());
+        assertEquals(Arrays.asList("0=0 EXACT", "1=1 EXACT"), listener.matches);
+        assertEquals(Arrays.asList("2 KES 10.0"), listener.unmatchedStatement);
+    }
+
+    @Test
+    @DisplayName("The nearest amount within the tolerance is matched when there is no exact match")
+    void toleranceMatches() {
+
+        RecordingListener listener = new RecordingListener();
+
+        ReconciliationSummary summary = new CashReconciler(5).reconcile(
+            Arrays.asList(shilling(10.00), shilling(10.00), shilling(10.00), shilling(50)),
+            Arrays.asList(shilling(9.96), shilling(10.02), shilling(10.00), shilling(50.06)),
+            listener);
+
+        assertEquals(1, summary.getExactMatches());
+        assertEquals(2, summary.getToleranceMatches());
+        assertEquals(Arrays.asList("0=2 EXACT", "1=1 WITHIN_TOLERANCE", "2=0 WITHIN_TOLERANCE"), listener.matches);
+        assertEquals(Arrays.asList("3 KES 50.0"), listener.unmatchedStatement);
+        assertEquals(Arrays.asList("3 KES 50.06"), listener.unmatchedLedger);
+    }
+
+    @Test
+    @DisplayName("Unmatched ledger items are reported in order of currency code")
+    void unmatchedLedgerOrder() {
+
+        RecordingListener listener = new RecordingListener();
+
+        new CashReconciler().reconcile(
+            Arrays.<Cash>asList(),
+            Arrays.asList(dollar(1), shilling(2), euro(3), dollar(0.5)),
+            listener);
+
+        assertEquals(Arrays.asList("2 EUR 3.0", "1 KES 2.0", "3 USD 0.5", "0 USD 1.0"), listener.unmatchedLedger);
+    }
+
+    @Test
+    @DisplayName("Negative tolerance is rejected")
+    void negativeTolerance() {
+
+        assertThrows(IllegalArgumentException.class, () -> new CashReconciler(-1));
+    }
+
+    private static class RecordingListener implements ReconciliationListener {
+
+        private final List<String> matches = new ArrayList<>();
+        private final List<String> unmatchedStatement = new ArrayList<>();
+        private final List<String> unmatchedLedger = new ArrayList<>();
+
+        @Override
+        public void matched(long statementLine, Cash statementCash, long ledgerLine, Cash ledgerCash, MatchType matchType) {
+            matches.add(statementLine + "=" + ledgerLine + " " + matchType);
+        }
+
+        @Override
+        public void unmatchedStatement(long statementLine, Cash statementCash) {
+            unmatchedStatement.add(statementLine + " " + statementCash);
+        }
+
+        @Override
+        public void unmatchedLedger(long ledgerLine, Cash ledgerCash) {
+            unmatchedLedger.add(ledgerLine + " " + ledgerCash);
+        }
+    }
+}
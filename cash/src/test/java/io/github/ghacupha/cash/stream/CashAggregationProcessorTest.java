@@ -0,0 +1,352 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import io.github.ghacupha.cash.Cash;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.github.ghacupha.cash.HardCash.dollar;
+import static io.github.ghacupha.cash.HardCash.euro;
+import static io.github.ghacupha.cash.HardCash.shilling;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Streaming aggregation of cash with backpressure")
+class CashAggregationProcessorTest {
+
+    private static final Currency KES = Currency.getInstance("KES");
+    private static final Currency USD = Currency.getInstance("USD");
+
+    private final List<Cash> payments = Arrays.asList(shilling(10), dollar(2.50), shilling(5.25), shilling(-1), dollar(1));
+
+    @Test
+    @DisplayName("Running totals are emitted for the currency of every item")
+    void runningTotals() {
+
+        CollectingSubscriber<CashAggregate> subscriber = run(new RunningTotalsProcessor(2), payments, Long.MAX_VALUE);
+
+        assertEquals(5, subscriber.items.size());
+        CashAggregate last = subscriber.items.get(4);
+        assertEquals(dollar(3.50), last.getSum());
+        assertEquals(2, last.getCount());
+
+        CashAggregate shillings = subscriber.items.get(3);
+        assertEquals(shilling(14.25), shillings.getSum());
+        assertEquals(shilling(-1), shillings.getMin());
+        assertEquals(shilling(10), shillings.getMax());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    @DisplayName("Tumbling windows do not overlap and the last window may be short")
+    void tumblingWindows() {
+
+        CollectingSubscriber<CashWindow> subscriber = run(new TumblingWindowProcessor(2, 1), payments, Long.MAX_VALUE);
+
+        assertEquals(3, subscriber.items.size());
+        assertEquals(shilling(10), subscriber.items.get(0).getAggregate(KES).getSum());
+        assertEquals(dollar(2.50), subscriber.items.get(0).getAggregate(USD).getSum());
+        assertEquals(shilling(4.25), subscriber.items.get(1).getAggregate(KES).getSum());
+        assertNull(subscriber.items.get(1).getAggregate(USD));
+        assertEquals(1, subscriber.items.get(2).getItemCount());
+        assertEquals(2, subscriber.items.get(2).getSequence());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    @DisplayName("Sliding windows cover the most recent items")
+    void slidingWindows() {
+
+        CollectingSubscriber<CashWindow> subscriber = run(new SlidingWindowProcessor(3, 2), payments, Long.MAX_VALUE);
+
+        assertEquals(3, subscriber.items.size());
+        assertEquals(2, subscriber.items.get(0).getItemCount());
+        // items 1 to 3
+        assertEquals(shilling(4.25), subscriber.items.get(1).getAggregate(KES).getSum());
+        assertEquals(dollar(2.50), subscriber.items.get(1).getAggregate(USD).getSum());
+        // items 2 to 4
+        assertEquals(shilling(4.25), subscriber.items.get(2).getAggregate(KES).getSum());
+        assertEquals(dollar(1), subscriber.items.get(2).getAggregate(USD).getMax());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    @DisplayName("Upstream is not drained faster than the subscriber requests")
+    void backpressure() {
+
+        List<Cash> many = IntStream.range(0, 1000).mapToObj(i -> shilling(i)).collect(Collectors.toList());
+        IteratorPublisher<Cash> publisher = new IteratorPublisher<>(many.iterator());
+        RunningTotalsProcessor processor = new RunningTotalsProcessor(10);
+        CollectingSubscriber<CashAggregate> subscriber = new CollectingSubscriber<>(5);
+
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+
+        assertEquals(5, subscriber.items.size());
+        assertTrue(publisher.getRequests() <= 2);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(1000, subscriber.items.size());
+        assertEquals(shilling(499500), subscriber.items.get(999).getSum());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    @DisplayName("Items are routed to the subscriber of their currency")
+    void fanOut() {
+
+        CollectingSubscriber<Cash> shillings = new CollectingSubscriber<>(Long.MAX_VALUE);
+        CollectingSubscriber<Cash> dollars = new CollectingSubscriber<>(Long.MAX_VALUE);
+        CurrencyFanOut fanOut = new CurrencyFanOut(2).route(KES, shillings).route(USD, dollars);
+
+        new IteratorPublisher<>(Arrays.asList(shilling(1), dollar(2), euro(4), shilling(3)).iterator()).subscribe(fanOut);
+
+        assertEquals(Arrays.asList(shilling(1), shilling(3)), shillings.items);
+        assertEquals(Arrays.asList(dollar(2)), dollars.items);
+        assertEquals(1, fanOut.getUnrouted());
+        assertTrue(shillings.completed);
+        assertTrue(dollars.completed);
+    }
+
+    @Test
+    @DisplayName("Only the first terminal signal reaches the routes")
+    void fanOutTerminatesOnce() {
+
+        CollectingSubscriber<Cash> shillings = new CollectingSubscriber<>(Long.MAX_VALUE);
+        CurrencyFanOut fanOut = new CurrencyFanOut().route(KES, shillings);
+
+        new IteratorPublisher<>(Arrays.asList(shilling(1)).iterator()).subscribe(fanOut);
+        fanOut.onComplete();
+        fanOut.onError(new IllegalStateException());
+
+        assertEquals(1, shillings.terminations);
+    }
+
+    @Test
+    @DisplayName("A subscriber requesting a non positive number of items is failed and upstream is cancelled")
+    void invalidRequest() {
+
+        IteratorPublisher<Cash> publisher = new IteratorPublisher<>(payments.iterator());
+        RunningTotalsProcessor processor = new RunningTotalsProcessor(16);
+        CollectingSubscriber<CashAggregate> subscriber = new CollectingSubscriber<>(-1);
+
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(publisher.isCancelled());
+        assertEquals(0, publisher.getRequests());
+        assertEquals(1, subscriber.terminations);
+    }
+
+    @Test
+    @DisplayName("A route requesting a non positive number of items is dropped while the other routes keep flowing")
+    void fanOutInvalidRequest() {
+
+        CollectingSubscriber<Cash> shillings = new CollectingSubscriber<>(0);
+        CollectingSubscriber<Cash> dollars = new CollectingSubscriber<>(Long.MAX_VALUE);
+        CurrencyFanOut fanOut = new CurrencyFanOut(8).route(KES, shillings).route(USD, dollars);
+
+        new IteratorPublisher<>(alternating(5000).iterator()).subscribe(fanOut);
+
+        assertTrue(shillings.error instanceof IllegalArgumentException);
+        assertEquals(1, shillings.terminations);
+        assertEquals(0, shillings.items.size());
+        assertEquals(2500, dollars.items.size());
+        assertTrue(dollars.completed);
+    }
+
+    @Test
+    @DisplayName("A route that cancels is dropped while the other routes keep flowing")
+    void fanOutCancelledRoute() {
+
+        CollectingSubscriber<Cash> shillings = new CollectingSubscriber<Cash>(Long.MAX_VALUE).cancelAfter(3);
+        CollectingSubscriber<Cash> dollars = new CollectingSubscriber<>(Long.MAX_VALUE);
+        CurrencyFanOut fanOut = new CurrencyFanOut(8).route(KES, shillings).route(USD, dollars);
+
+        new IteratorPublisher<>(alternating(5000).iterator()).subscribe(fanOut);
+
+        assertEquals(3, shillings.items.size());
+        assertEquals(0, shillings.terminations);
+        assertEquals(2500, dollars.items.size());
+        assertTrue(dollars.completed);
+    }
+
+    @Test
+    @DisplayName("Upstream is cancelled once every route has cancelled")
+    void fanOutAllCancelled() {
+
+        IteratorPublisher<Cash> publisher = new IteratorPublisher<>(alternating(5000).iterator());
+        CollectingSubscriber<Cash> shillings = new CollectingSubscriber<Cash>(Long.MAX_VALUE).cancelAfter(3);
+        CollectingSubscriber<Cash> dollars = new CollectingSubscriber<>(-1);
+
+        publisher.subscribe(new CurrencyFanOut(8).route(KES, shillings).route(USD, dollars));
+
+        assertEquals(3, shillings.items.size());
+        assertTrue(dollars.error instanceof IllegalArgumentException);
+        assertTrue(publisher.isCancelled());
+    }
+
+    @Test
+    @DisplayName("A publisher completing under the lock it takes in request does not deadlock the processor")
+    void processorLockOrder() throws Exception {
+
+        RunningTotalsProcessor processor = new RunningTotalsProcessor(4);
+        CollectingSubscriber<CashAggregate> subscriber = new CollectingSubscriber<>(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+
+        completeWhileRequested(processor);
+
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    @DisplayName("A publisher completing under the lock it takes in request does not deadlock the fan out")
+    void fanOutLockOrder() throws Exception {
+
+        CollectingSubscriber<Cash> shillings = new CollectingSubscriber<>(Long.MAX_VALUE);
+
+        completeWhileRequested(new CurrencyFanOut(4).route(KES, shillings));
+
+        assertTrue(shillings.completed);
+    }
+
+    /**
+     * Completes the target from a thread holding the lock that the subscription takes in request, while
+     * the target is making its first request from another thread
+     */
+    private static void completeWhileRequested(Subscriber<Cash> target) throws Exception {
+
+        Object publisherLock = new Object();
+        CountDownLatch lockHeld = new CountDownLatch(1);
+        CountDownLatch requesting = new CountDownLatch(1);
+        Subscription subscription = new Subscription() {
+
+            @Override
+            public void request(long n) {
+                requesting.countDown();
+                synchronized (publisherLock) {
+                    // an asynchronous publisher would update its demand here
+                }
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+
+        ExecutorService threads = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> completing = threads.submit(() -> {
+                synchronized (publisherLock) {
+                    lockHeld.countDown();
+                    requesting.await();
+                    target.onComplete();
+                }
+                return null;
+            });
+            lockHeld.await();
+            Future<?> subscribing = threads.submit(() -> target.onSubscribe(subscription));
+
+            completing.get(10, TimeUnit.SECONDS);
+            subscribing.get(10, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private static List<Cash> alternating(int count) {
+
+        return IntStream.range(0, count).mapToObj(i -> i % 2 == 0 ? shilling(i) : dollar(i)).collect(Collectors.toList());
+    }
+
+    private static <R> CollectingSubscriber<R> run(CashAggregationProcessor<R> processor, List<Cash> items, long request) {
+
+        CollectingSubscriber<R> subscriber = new CollectingSubscriber<>(request);
+        processor.subscribe(subscriber);
+        new IteratorPublisher<>(items.iterator()).subscribe(processor);
+        return subscriber;
+    }
+
+    private static class CollectingSubscriber<T> implements Subscriber<T> {
+
+        private final long initialRequest;
+        private final List<T> items = new ArrayList<>();
+        private Subscription subscription;
+        private boolean completed;
+        private Throwable error;
+        private int terminations;
+        private long cancelAfter = Long.MAX_VALUE;
+
+        CollectingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        CollectingSubscriber<T> cancelAfter(long count) {
+            this.cancelAfter = count;
+            return this;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+            if (items.size() == cancelAfter) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminations++;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminations++;
+        }
+    }
+}
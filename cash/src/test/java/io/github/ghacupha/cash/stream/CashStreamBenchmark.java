@@ -0,0 +1,135 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.HardCash;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Currency;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Throughput benchmark of the aggregation processors fed by a synthetic publisher. This is not a test,
+ * run it with a warmed up JVM :
+ * <pre>
+ *     mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.github.ghacupha.cash.stream.CashStreamBenchmark
+ * </pre>
+ */
+public class CashStreamBenchmark {
+
+    private static final int ITEMS = 5_000_000;
+    private static final int ROUNDS = 5;
+    private static final String[] CURRENCIES = {"KES", "USD", "EUR", "GBP"};
+
+    public static void main(String[] args) {
+
+        Cash[] pool = syntheticPool(4096);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.println("Round " + round);
+            measure("running totals", pool, RunningTotalsProcessor::new);
+            measure("tumbling window 1000", pool, () -> new TumblingWindowProcessor(1000));
+            measure("sliding window 1000/100", pool, () -> new SlidingWindowProcessor(1000, 100));
+        }
+    }
+
+    private static Cash[] syntheticPool(int size) {
+
+        Random random = new Random(42);
+        Cash[] pool = new Cash[size];
+        for (int i = 0; i < size; i++) {
+            pool[i] = HardCash.of(random.nextInt(10_000_000) / 100.0, Currency.getInstance(CURRENCIES[i % CURRENCIES.length]));
+        }
+        return pool;
+    }
+
+    private static void measure(String name, Cash[] pool, Supplier<CashAggregationProcessor<?>> processorSupplier) {
+
+        CashAggregationProcessor<?> processor = processorSupplier.get();
+        CountingSubscriber subscriber = new CountingSubscriber(64);
+        processor.subscribe(subscriber);
+
+        long start = System.nanoTime();
+        new IteratorPublisher<>(cycle(pool, ITEMS)).subscribe(processor);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("  %-24s %,12.0f items/s (%,d results)%n", name, ITEMS / (elapsed / 1e9), subscriber.count);
+    }
+
+    private static Iterator<Cash> cycle(Cash[] pool, int items) {
+
+        return new Iterator<Cash>() {
+
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < items;
+            }
+
+            @Override
+            public Cash next() {
+                return pool[position++ % pool.length];
+            }
+        };
+    }
+
+    /**
+     * Counts results, requesting them a batch at a time
+     */
+    private static class CountingSubscriber implements Subscriber<Object> {
+
+        private final int batch;
+        private Subscription subscription;
+        private long count;
+        private int outstanding;
+
+        CountingSubscriber(int batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            outstanding = batch;
+            subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            count++;
+            if (--outstanding == 0) {
+                outstanding = batch;
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throwable.printStackTrace();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
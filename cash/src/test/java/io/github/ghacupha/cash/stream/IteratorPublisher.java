@@ -0,0 +1,92 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.stream;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synchronous {@link Publisher} of the items of an iterator, emitting only as many items as requested
+ */
+class IteratorPublisher<T> implements Publisher<T> {
+
+    private final Iterator<? extends T> items;
+    private final AtomicLong requests = new AtomicLong();
+    private volatile boolean cancelled;
+
+    IteratorPublisher(Iterator<? extends T> items) {
+        this.items = items;
+    }
+
+    /**
+     * @return Number of calls to {@link Subscription#request(long)}
+     */
+    long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return Whether the subscription has been cancelled
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+
+        subscriber.onSubscribe(new Subscription() {
+
+            private final AtomicLong demand = new AtomicLong();
+            private final AtomicInteger wip = new AtomicInteger();
+            private boolean done;
+
+            @Override
+            public void request(long n) {
+                requests.incrementAndGet();
+                demand.addAndGet(n);
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+                int missed = 1;
+                do {
+                    while (!done && !cancelled && demand.get() > 0) {
+                        if (items.hasNext()) {
+                            demand.decrementAndGet();
+                            subscriber.onNext(items.next());
+                        } else {
+                            done = true;
+                            subscriber.onComplete();
+                        }
+                    }
+                    missed = wip.addAndGet(-missed);
+                } while (missed != 0);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+        });
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * cash - A Java light weight monetary representation facade for the rest of us
+ * Copyright © 2018 Edwin Njeru (mailnjeru@gmail.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.github.ghacupha.cash.valuation;
+
+import io.github.ghacupha.cash.Cash;
+import io.github.ghacupha.cash.HardCash;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.ghacupha.cash.HardCash.dollar;
+import static io.github.ghacupha.cash.HardCash.euro;
+import static io.github.ghacupha.cash.HardCash.shilling;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Parallel valuation of cash positions")
+class ValuationServiceTest {
+
+    private static final Currency KES = Currency.getInstance("KES");
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private final RateProvider rates = new FixedRateProvider(KES)
+        .withRate(USD, new BigDecimal("101.3333"))
+        .withRate(EUR, new BigDecimal("117.50"));
+
+    @Test
+    @DisplayName("Positions are summed per currency and converted once")
+    void valuesPositions() {
+
+        List<Cash> positions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            positions.add(shilling(1.01));
+            positions.add(dollar(0.03));
+        }
+        positions.add(euro(2));
+
+        AtomicInteger progress = new AtomicInteger();
+        ValuationService service = new ValuationService(rates, KES, ExecutionMode.FORK_JOIN, 64, (completed, total) -> progress.incrementAndGet());
+
+        Valuation valuation = service.value(positions);
+
+        assertEquals(Arrays.asList(EUR, KES, USD), new ArrayList<>(valuation.getTotals().keySet()));
+        assertEquals(shilling(1010), valuation.getTotals().get(KES));
+        assertEquals(dollar(30), valuation.getTotals().get(USD));
+        // 1010 + 30 * 101.3333 + 2 * 117.50 = 4284.999, rounded once
+        assertEquals(shilling(4285.00), valuation.getValue());
+        assertEquals(32, valuation.getMetrics().getWorkUnits());
+        assertEquals(32, progress.get());
+        assertEquals(2001, valuation.getMetrics().getPositions());
+    }
+
+    @Test
+    @DisplayName("Primitive columns are valued like cash positions")
+    void valuesColumns() {
+
+        ValuationService service = new ValuationService(rates, USD, ExecutionMode.FORK_JOIN, 2, (completed, total) -> {
+        });
+
+        Valuation valuation = service.value(new Currency[]{USD, KES, USD}, new long[]{150, 101_333, -50});
+
+        assertEquals(dollar(1), valuation.getTotals().get(USD));
+        assertEquals(dollar(11), valuation.getValue());
+        assertEquals(dollar(0), new ValuationService(rates, USD).value(USD, new long[0]).getValue());
+    }
+
+    @Test
+    @DisplayName("Virtual threads give the same result as the fork join pool where the runtime has them")
+    void virtualThreads() {
+
+        long[] amounts = new long[10_000];
+        Arrays.fill(amounts, 7);
+
+        if (!ExecutionMode.VIRTUAL_THREADS.isSupported()) {
+            assertThrows(UnsupportedOperationException.class,
+                () -> new ValuationService(rates, KES, ExecutionMode.VIRTUAL_THREADS, 100, (completed, total) -> {
+                }));
+            return;
+        }
+
+        Valuation valuation = new ValuationService(rates, KES, ExecutionMode.VIRTUAL_THREADS, 100, (completed, total) -> {
+        }).value(KES, amounts);
+
+        assertEquals(shilling(700), valuation.getValue());
+    }
+
+    @Test
+    @DisplayName("Blocking rate lookups do not starve the fork join pool")
+    void blockingRates() {
+
+        String[] codes = {"AUD", "CAD", "CHF", "CNY", "GBP", "INR", "JPY", "ZAR", "EUR", "USD"};
+        int lookups = codes.length;
+        CyclicBarrier barrier = new CyclicBarrier(lookups);
+
+        // every lookup waits for all the others, which only succeeds if they all run at the same time
+        RateProvider blocking = (from, to) -> {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+            return BigDecimal.ONE;
+        };
+
+        List<Cash> positions = new ArrayList<>();
+        for (String code : codes) {
+            positions.add(HardCash.of(1, code));
+        }
+
+        Valuation valuation = new ValuationService(blocking, KES).value(positions);
+
+        assertEquals(lookups, valuation.getRates().size());
+    }
+
+    @Test
+    @DisplayName("A missing rate fails the valuation")
+    void missingRate() {
+
+        ValuationService service = new ValuationService(rates, KES);
+
+        assertThrows(IllegalArgumentException.class, () -> service.value(Arrays.asList(shilling(1), HardCash.of(1, "JPY"))));
+    }
+
+    @Test
+    @DisplayName("A rate provider that returns no rate fails the valuation with the currency pair")
+    void nullRate() {
+
+        ValuationService service = new ValuationService((from, to) -> null, KES);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.value(Arrays.asList(shilling(1), dollar(1))));
+        assertEquals("No rate is known for USD against KES", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("The service cannot be created without its collaborators")
+    void nullArguments() {
+
+        assertThrows(NullPointerException.class, () -> new ValuationService(null, KES));
+        assertThrows(NullPointerException.class, () -> new ValuationService(rates, null));
+        assertThrows(NullPointerException.class, () -> new ValuationService(rates, KES, null, 1, (completed, total) -> {
+        }));
+        assertThrows(NullPointerException.class, () -> new ValuationService(rates, KES, ExecutionMode.FORK_JOIN, 1, null));
+    }
+}